@@ -12,12 +12,16 @@ import { getImageUrl } from '../../lib/constant/constant';
 import { useMemberForm } from '../../hooks/useMemberForm';
 import { DistrictService } from '../../services/district.service';
 import { TributeService } from '../../services/tribute.service';
+import { PersonService } from '../../services/person.services';
+import { PersonSearchHitDto } from '../../lib/types/models/person.type';
 import { DistrictDto, TributeDto } from '../../lib/types/models/common.type';
 
-const MemberForm: React.FC<any> = ({ isOpen, onClose, memberToEdit, onSuccess, allMembers }) => {
+const MemberForm: React.FC<any> = ({ isOpen, onClose, memberToEdit, onSuccess }) => {
   const [districts, setDistricts] = useState<DistrictDto[]>([]);
   const [tributes, setTributes] = useState<TributeDto[]>([]);
   const [isChildMode, setIsChildMode] = useState(false);
+  const [parentQuery, setParentQuery] = useState("");
+  const [parentHits, setParentHits] = useState<PersonSearchHitDto[]>([]);
   const { formData, handleChange, handleSubmit, loading, errors } = useMemberForm(
     () => { onSuccess(); onClose(); }, 
     memberToEdit
@@ -36,12 +40,25 @@ const MemberForm: React.FC<any> = ({ isOpen, onClose, memberToEdit, onSuccess, a
         setIsChildMode(!!memberToEdit?.parentId);
     }
   }, [isOpen, memberToEdit]);
-  const parentOptions = useMemo(() => 
-    allMembers
-        ?.filter((m: any) => m.id !== memberToEdit?.id && !m.parentId)
-        .map((m: any) => ({ value: m.id, label: `${m.firstName} ${m.lastName}` })) || [],
-    [allMembers, memberToEdit]
-  );
+  // Parent choisi par recherche serveur (le registre complet n'est plus chargé côté client)
+  useEffect(() => {
+    const term = parentQuery.trim();
+    if (!term) { setParentHits([]); return; }
+    const timer = setTimeout(() => {
+        PersonService.search(term, 20).then(setParentHits).catch(() => setParentHits([]));
+    }, 200);
+    return () => clearTimeout(timer);
+  }, [parentQuery]);
+  const parentOptions = useMemo(() => {
+    const options = parentHits
+        .filter(h => h.id !== memberToEdit?.id)
+        .map(h => ({ value: h.id, label: `${h.firstName} ${h.lastName}` }));
+    // Parent actuel toujours sélectionnable en modification
+    if (memberToEdit?.parentId && !options.some(o => o.value === memberToEdit.parentId)) {
+        options.unshift({ value: memberToEdit.parentId, label: memberToEdit.parentName || memberToEdit.parentId });
+    }
+    return options;
+  }, [parentHits, memberToEdit]);
   if (!isOpen) return null;
 
   return createPortal(
@@ -97,6 +114,13 @@ const MemberForm: React.FC<any> = ({ isOpen, onClose, memberToEdit, onSuccess, a
                 </div>
                 {isChildMode && (
                     <div className="p-6 bg-amber-50 rounded-4xl border-2 border-dashed border-amber-200 animate-in slide-in-from-top-4">
+                        <Input
+                            label="Rechercher le parent"
+                            name="parentQuery"
+                            value={parentQuery}
+                            onChange={(e: React.ChangeEvent<HTMLInputElement>) => setParentQuery(e.target.value)}
+                            placeholder="Nom ou téléphone..."
+                        />
                         <Select 
                             label="Parent responsable" 
                             name="parentId" 
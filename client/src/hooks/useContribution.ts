@@ -4,11 +4,13 @@ import { PaymentService } from '../services/payment.service';
 import { ContributionResponseDto } from '../lib/types/models/contribution.type';
 import { MemberHelper } from '../lib/helper/member.helper';
 import toast from 'react-hot-toast';
+import { useIdempotencyKey } from './useIdempotencyKey';
 
 export const useContribution = (year: number = new Date().getFullYear()) => {
     const [contributions, setContributions] = useState<ContributionResponseDto[]>([]);
     const [loading, setLoading] = useState(true);
     const [search, setSearch] = useState("");
+    const { keyFor, release } = useIdempotencyKey();
 
     const fetchContributions = useCallback(async () => {
         setLoading(true);
@@ -43,7 +45,8 @@ export const useContribution = (year: number = new Date().getFullYear()) => {
                 amountPaid: amount,
                 status: 'COMPLETED',
                 paymentDate: new Date().toISOString()
-            });
+            }, keyFor(`${contributionId}:${amount}`));  // réutilisée jusqu'au succès de cette saisie
+            release();
             toast.success("Paiement enregistré");
             fetchContributions(); // Recharger pour voir le nouveau solde
         } catch (error) {
@@ -0,0 +1,22 @@
+import { useCallback, useRef } from 'react';
+
+/**
+ * Clé d'idempotence d'une saisie : générée une fois par saisie (signature), réutilisée à chaque renvoi
+ * de cette même saisie (double clic, nouvel essai après un délai dépassé) puis libérée au premier succès.
+ */
+export const useIdempotencyKey = () => {
+    const pending = useRef<{ signature: string; key: string } | null>(null);
+
+    const keyFor = useCallback((signature: string): string => {
+        if (pending.current?.signature !== signature) {
+            pending.current = { signature, key: crypto.randomUUID() };
+        }
+        return pending.current.key;
+    }, []);
+
+    const release = useCallback(() => {
+        pending.current = null;
+    }, []);
+
+    return { keyFor, release };
+};
@@ -1,43 +1,76 @@
-import { useState, useEffect, useCallback, useMemo } from 'react';
+import { useState, useEffect, useCallback } from 'react';
 import { PersonService } from '../services/person.services';
-import { PersonResponseDto } from '../lib/types/models/person.type';
+import { DistrictService } from '../services/district.service';
+import { TributeService } from '../services/tribute.service';
+import { PersonResponseDto, PersonSearchHitDto } from '../lib/types/models/person.type';
+import { DistrictDto, TributeDto } from '../lib/types/models/common.type';
 import toast from 'react-hot-toast';
 
+const PAGE_SIZE = 50;
+
 export const useMemberLogic = () => {
     const [members, setMembers] = useState<PersonResponseDto[]>([]);
     const [loading, setLoading] = useState(true);
     const [search, setSearch] = useState("");
     const [selectedMembers, setSelectedMembers] = useState<string[]>([]);
-    
-    // États des filtres
+
+    // Pagination serveur (PagedModel) : le registre complet n'est jamais chargé côté client
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
+    const [totalElements, setTotalElements] = useState(0);
+
+    // États des filtres (appliqués par le serveur ; district / tribu par ID)
     const [filterSex, setFilterSex] = useState("");
     const [filterDistrict, setFilterDistrict] = useState("");
     const [filterTribe, setFilterTribe] = useState("");
+    const [districts, setDistricts] = useState<DistrictDto[]>([]);
+    const [tributes, setTributes] = useState<TributeDto[]>([]);
+    // Résultats de recherche classés par le serveur (null = pas de recherche en cours)
+    const [searchHits, setSearchHits] = useState<PersonSearchHitDto[] | null>(null);
+
+    useEffect(() => {
+        Promise.all([DistrictService.getAll(), TributeService.getAll()])
+            .then(([distData, tribData]) => { setDistricts(distData); setTributes(tribData); })
+            .catch(() => toast.error("Erreur de chargement des districts / tribus"));
+    }, []);
+
+    // Un changement de filtre repart de la première page
+    useEffect(() => { setPage(0); }, [filterSex, filterDistrict, filterTribe]);
 
     const fetchMembers = useCallback(async () => {
         setLoading(true);
         try {
-            const data = await PersonService.getAll();
-            setMembers(data);
+            const params: Record<string, string | number> = { page, size: PAGE_SIZE };
+            if (filterSex) params.gender = filterSex;
+            if (filterDistrict) params.districtId = filterDistrict;
+            if (filterTribe) params.tributeId = filterTribe;
+            const data = await PersonService.getPage(params);
+            setMembers(data.content);
+            setTotalPages(data.page.totalPages);
+            setTotalElements(data.page.totalElements);
         } catch (error) {
             toast.error("Erreur de synchronisation");
         } finally {
             setLoading(false);
         }
-    }, []);
+    }, [page, filterSex, filterDistrict, filterTribe]);
 
     useEffect(() => { fetchMembers(); }, [fetchMembers]);
 
-    // Logique de filtrage
-    const filteredMembers = useMemo(() => {
-        return members.filter(m => {
-            const matchesSearch = `${m.firstName} ${m.lastName} ${m.phoneNumber}`.toLowerCase().includes(search.toLowerCase());
-            const matchesSex = filterSex ? m.gender === filterSex : true;
-            const matchesDistrict = filterDistrict ? (m.districtName === filterDistrict) : true;
-            const matchesTribe = filterTribe ? (m.tributeName === filterTribe) : true;
-            return matchesSearch && matchesSex && matchesDistrict && matchesTribe;
-        });
-    }, [members, search, filterSex, filterDistrict, filterTribe]);
+    // Recherche serveur (nom / téléphone, tolérante aux fautes) sur tout le registre : les résultats sont affichés tels quels
+    useEffect(() => {
+        const term = search.trim();
+        if (!term) { setSearchHits(null); return; }
+        const timer = setTimeout(() => {
+            PersonService.search(term, 100)
+                .then(setSearchHits)
+                .catch(() => { setSearchHits([]); toast.error("Erreur de recherche"); });
+        }, 200);
+        return () => clearTimeout(timer);
+    }, [search]);
+
+    // Fiche complète d'un résultat de recherche (consultation / modification)
+    const loadMember = useCallback((id: string) => PersonService.getById(id), []);
 
     // Sélection multiple
     const handleSelect = (id: string) => {
@@ -45,15 +78,21 @@ export const useMemberLogic = () => {
     };
 
     const handleSelectAll = (checked: boolean) => {
-        setSelectedMembers(checked ? filteredMembers.map(m => m.id) : []);
+        setSelectedMembers(checked ? (searchHits ?? members).map(m => m.id) : []);
     };
 
     const deleteAction = async (ids: string[]) => {
         if (!window.confirm(`Confirmer la suppression de ${ids.length} membre(s) ?`)) return;
         try {
-            await Promise.all(ids.map(id => PersonService.delete(id)));
-            toast.success("Suppression réussie");
+            const result = await PersonService.bulkDelete(ids);
+            const failedCount = Object.keys(result.failed).length;
+            if (failedCount > 0) {
+                toast.error(`${failedCount} membre(s) non supprimé(s) (cotisations ou enfants liés)`);
+            } else {
+                toast.success("Suppression réussie");
+            }
             setSelectedMembers([]);
+            setSearchHits(hits => hits ? hits.filter(h => !result.succeeded.includes(h.id)) : hits);
             fetchMembers();
         } catch (error) {
             toast.error("Erreur lors de la suppression");
@@ -61,8 +100,9 @@ export const useMemberLogic = () => {
     };
 
     return {
-        members: filteredMembers,
-        allMembers: members, // utile pour extraire les options de filtres
+        members, searchHits, loadMember,
+        totalElements, page, totalPages, setPage,
+        districts, tributes, // options des filtres
         loading, search, setSearch,
         filterSex, setFilterSex,
         filterDistrict, setFilterDistrict,
@@ -70,4 +110,4 @@ export const useMemberLogic = () => {
         selectedMembers, handleSelect, handleSelectAll,
         deleteAction, refreshMembers: fetchMembers
     };
-};
\ No newline at end of file
+};
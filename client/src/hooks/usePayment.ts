@@ -2,9 +2,11 @@ import { useState, useCallback } from 'react';
 import { PaymentService } from '../services/payment.service';
 import { ContributionResponseDto } from '../lib/types/models/contribution.type';
 import toast from 'react-hot-toast';
+import { useIdempotencyKey } from './useIdempotencyKey';
 
 export const usePayment = (onSuccess: () => void) => {
     const [isSubmitting, setIsSubmitting] = useState(false);
+    const { keyFor, release } = useIdempotencyKey();
 
     const processPayment = async (contribution: ContributionResponseDto, amount: number) => {
         if (amount <= 0) {
@@ -19,13 +21,15 @@ export const usePayment = (onSuccess: () => void) => {
 
         setIsSubmitting(true);
         try {
+            // Même clé tant que cette saisie n'a pas abouti : un renvoi ne crée pas de second paiement
             await PaymentService.create({
                 contributionId: contribution.id,
                 amountPaid: amount,
                 paymentDate: new Date().toISOString(),
                 status: "COMPLETED"
-            });
-            
+            }, keyFor(`${contribution.id}:${amount}`));
+            release();
+
             toast.success(`Paiement de ${amount} Ar enregistré pour ${contribution.memberName}`);
             onSuccess();
         } catch (error: any) {
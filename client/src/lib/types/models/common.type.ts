@@ -3,6 +3,21 @@ export type MemberStatus = "WORKER" | "STUDENT";
 export type PaymentStatus = "COMPLETED" | "PENDING";
 export type Role = "SUPERADMIN" | "ADMIN";
 export type ContributionStatus = "PENDING" | "PARTIAL" |"PAID" |"OVERDUE";
+/**
+ * Page sérialisée par Spring (PagedModel) : { content, page }
+ */
+export interface PageMetadata {
+    size: number;
+    number: number;
+    totalElements: number;
+    totalPages: number;
+}
+
+export interface PagedModel<T> {
+    content: T[];
+    page: PageMetadata;
+}
+
 export interface DistrictDto {
     id?: number; // Optionnel car absent du DTO d'entrée mais présent en base
     name: string;
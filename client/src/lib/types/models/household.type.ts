@@ -0,0 +1,40 @@
+import type { ContributionStatus } from "./common.type";
+
+/**
+ * Membre en retard de paiement (HouseholdMemberDto.java)
+ */
+export interface HouseholdMemberDto {
+    id: string;
+    firstName: string;
+    lastName: string;
+    contributionId: string;
+    status: ContributionStatus;
+    amount: number;
+    paid: number;
+    remaining: number;
+}
+
+/**
+ * Foyer = ancêtre racine et sa descendance (HouseholdDto.java)
+ */
+export interface HouseholdDto {
+    rootId: string;
+    rootFirstName: string;
+    rootLastName: string;
+    districtName: string;
+    billedMembers: number;
+    billed: number;
+    paid: number;
+    remaining: number;
+    membersBehind: HouseholdMemberDto[];
+}
+
+/**
+ * Rollup annuel mis en cache côté serveur (HouseholdRollupDto.java)
+ */
+export interface HouseholdRollupDto {
+    year: number;
+    computedAt: string;
+    householdCount: number;
+    households: HouseholdDto[];
+}
@@ -19,4 +19,36 @@ export interface PaymentResponseDto {
     paymentDate: string;
     status: PaymentStatus;
     contributionId: string;
-}
\ No newline at end of file
+}
+
+/**
+ * Ligne d'une session d'encaissement (PaymentBatchLineDto.java)
+ */
+export interface PaymentBatchLineDto {
+    contributionId: string;
+    amountPaid: number;
+    paymentDate?: string;
+    status?: PaymentStatus;
+    idempotencyKey?: string;
+}
+
+/**
+ * Résultat par ligne (PaymentBatchLineResultDto.java)
+ */
+export interface PaymentBatchLineResultDto {
+    index: number;
+    contributionId: string | null;
+    outcome: 'ACCEPTED' | 'REPLAYED' | 'REJECTED';
+    paymentId: string | null;
+    reason: string | null;
+}
+
+/**
+ * Résultat global (PaymentBatchResultDto.java)
+ */
+export interface PaymentBatchResultDto {
+    requested: number;
+    accepted: number;
+    rejected: number;
+    lines: PaymentBatchLineResultDto[];
+}
@@ -33,4 +33,42 @@ export interface PersonResponseDto extends Omit<PersonDto, 'districtId' | 'tribu
     parentName?: string;
     childrenCount: number;
     children?: PersonResponseDto[]; // Relation récursive
-}
\ No newline at end of file
+}
+
+/**
+ * Résultat d'une opération en masse (delete / promote / move)
+ * Correspond à BulkOperationResultDto.java
+ */
+export interface BulkOperationResultDto {
+    requested: number;
+    succeeded: string[];
+    failed: Record<string, string>;
+}
+
+/**
+ * Résultat de recherche serveur (classé par pertinence)
+ * Correspond à PersonSearchHitDto.java
+ */
+export interface PersonSearchHitDto extends Pick<PersonResponseDto, 'id' | 'firstName' | 'lastName' | 'phoneNumber' | 'status' | 'isActiveMember' | 'districtName' | 'tributeName'> {
+    score: number;
+}
+/**
+ * Nœud de l'arbre familial (FamilyTreeNodeDto.java)
+ * billed / paid / outstanding : présents seulement avec balances=true
+ */
+export interface FamilyTreeNodeDto {
+    id: string;
+    firstName: string;
+    lastName: string;
+    birthDate: string;
+    gender: Gender;
+    status: MemberStatus;
+    isActiveMember: boolean;
+    depth: number;
+    truncated: boolean;
+    descendantCount: number;
+    billed: number | null;
+    paid: number | null;
+    outstanding: number | null;
+    children: FamilyTreeNodeDto[];
+}
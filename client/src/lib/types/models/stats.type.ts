@@ -0,0 +1,32 @@
+import type { ContributionStatus } from "./common.type";
+
+/**
+ * Agrégat du tableau de bord pour un triplet (année, district, tribu)
+ */
+export interface StatsDto {
+    year: number;
+    districtId: number;
+    districtName: string;
+    tributeId: number;
+    tributeName: string;
+    memberCount: number;        // personnes inscrites dans le groupe à la fin de l'année
+    activeMemberCount: number;  // dont membres actifs
+    contributionCount: number;  // cotisations de l'année pour le groupe
+    billed: number;
+    collected: number;
+    outstanding: number;
+    statusHistogram: Partial<Record<ContributionStatus, number>>;
+}
+
+/**
+ * Cotisation non soldée du top des impayés (reste à payer calculé côté serveur)
+ */
+export interface OutstandingContributionDto {
+    contributionId: string;
+    memberId: string;
+    memberName: string;
+    status: ContributionStatus;
+    amount: number;
+    paid: number;
+    remaining: number;
+}
@@ -0,0 +1,12 @@
+import api from '../api/axios.config';
+import { HouseholdRollupDto } from '../lib/types/models/household.type';
+
+const BASE_URL = '/api/admins/households';
+
+export const HouseholdService = {
+    // GET /?year=&behindOnly=&refresh= (refresh : ignore le cache serveur)
+    getRollup: async (year: number, behindOnly = false, refresh = false): Promise<HouseholdRollupDto> => {
+        const response = await api.get(BASE_URL, { params: { year, behindOnly, refresh } });
+        return response.data;
+    }
+};
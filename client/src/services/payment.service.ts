@@ -1,5 +1,5 @@
 import api from '../api/axios.config';
-import { PaymentDto, PaymentResponseDto } from '../lib/types/models/payment.type';
+import { PaymentBatchLineDto, PaymentBatchResultDto, PaymentDto, PaymentResponseDto } from '../lib/types/models/payment.type';
 
 const BASE_URL = '/api/admins/payments';
 
@@ -10,9 +10,15 @@ export const PaymentService = {
         return response.data;
     },
 
-    // POST /
-    create: async (data: PaymentDto): Promise<PaymentResponseDto> => {
-        const response = await api.post(BASE_URL, data);
+    // POST / (Idempotency-Key fournie par l'appelant, identique pour chaque renvoi d'une même saisie : voir useIdempotencyKey)
+    create: async (data: PaymentDto, idempotencyKey: string): Promise<PaymentResponseDto> => {
+        const response = await api.post(BASE_URL, data, { headers: { 'Idempotency-Key': idempotencyKey } });
+        return response.data;
+    },
+
+    // POST /batch (idempotencyKey fixée à la saisie de chaque ligne : la session se renvoie telle quelle après une coupure réseau)
+    createBatch: async (payments: PaymentBatchLineDto[]): Promise<PaymentBatchResultDto> => {
+        const response = await api.post(`${BASE_URL}/batch`, { payments });
         return response.data;
     },
 
@@ -1,11 +1,30 @@
 import api from '../api/axios.config';
-import { PersonDto, PersonResponseDto } from '../lib/types/models/person.type';
+import { PagedModel } from '../lib/types/models/common.type';
+import { BulkOperationResultDto, FamilyTreeNodeDto, PersonDto, PersonResponseDto, PersonSearchHitDto } from '../lib/types/models/person.type';
 
 const BASE_URL = '/api/admins/persons';
 
 export const PersonService = {
-    getAll: async (): Promise<PersonResponseDto[]> => {
-        const response = await api.get(BASE_URL);
+    // GET / paginé (PagedModel Spring : { content, page }) ; filtres : gender, districtId, tributeId, status, active…
+    getPage: async (params: Record<string, string | number | boolean> = {}): Promise<PagedModel<PersonResponseDto>> => {
+        const response = await api.get(BASE_URL, { params });
+        return response.data;
+    },
+
+    getById: async (id: string): Promise<PersonResponseDto> => {
+        const response = await api.get(`${BASE_URL}/${id}`);
+        return response.data;
+    },
+
+    // GET /search?q= (classé par pertinence, tolérant aux fautes)
+    search: async (q: string, size = 20): Promise<PersonSearchHitDto[]> => {
+        const response = await api.get(`${BASE_URL}/search`, { params: { q, size } });
+        return response.data.content;
+    },
+
+    // GET /{id}/family-tree (toute la descendance en une requête ; truncated = générations au-delà de depth)
+    getFamilyTree: async (id: string, params: { depth?: number; balances?: boolean; year?: number } = {}): Promise<FamilyTreeNodeDto> => {
+        const response = await api.get(`${BASE_URL}/${id}/family-tree`, { params });
         return response.data;
     },
 
@@ -26,5 +45,27 @@ export const PersonService = {
 
     delete: async (id: string) => {
         await api.delete(`${BASE_URL}/${id}`);
+    },
+
+    // POST /bulk/* (une requête, une transaction, résultat par ID)
+    bulkDelete: async (ids: string[]): Promise<BulkOperationResultDto> => {
+        const response = await api.post(`${BASE_URL}/bulk/delete`, { ids });
+        return response.data;
+    },
+
+    bulkPromote: async (ids: string[]): Promise<BulkOperationResultDto> => {
+        const response = await api.post(`${BASE_URL}/bulk/promote`, { ids });
+        return response.data;
+    },
+
+    // POST /promotions/run (nouveaux majeurs de l'année, depuis la dernière exécution)
+    promoteNewAdults: async (): Promise<BulkOperationResultDto> => {
+        const response = await api.post(`${BASE_URL}/promotions/run`);
+        return response.data;
+    },
+
+    bulkMove: async (ids: string[], districtId?: number, tributeId?: number): Promise<BulkOperationResultDto> => {
+        const response = await api.post(`${BASE_URL}/bulk/move`, { ids, districtId, tributeId });
+        return response.data;
     }
 };
\ No newline at end of file
@@ -0,0 +1,18 @@
+import api from '../api/axios.config';
+import { OutstandingContributionDto, StatsDto } from '../lib/types/models/stats.type';
+
+const BASE_URL = '/api/admins/stats';
+
+export const StatsService = {
+    // GET /?year=
+    getByYear: async (year: number): Promise<StatsDto[]> => {
+        const response = await api.get(BASE_URL, { params: { year } });
+        return response.data;
+    },
+
+    // GET /at-risk?year=&limit=
+    getAtRisk: async (year: number, limit = 10): Promise<OutstandingContributionDto[]> => {
+        const response = await api.get(`${BASE_URL}/at-risk`, { params: { year, limit } });
+        return response.data;
+    }
+};
@@ -1,12 +1,14 @@
-import React, { useMemo, useState } from 'react';
+import React, { useEffect, useMemo, useState } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { 
   AiOutlineUsergroupAdd, AiOutlineSearch, AiOutlineArrowRight, 
   AiOutlineGlobal, AiOutlineTeam, AiOutlineHistory,
   AiOutlineCheckCircle, AiOutlineCloseCircle, AiOutlineWarning, AiOutlineCalendar
 } from 'react-icons/ai';
-import { useMemberLogic } from '../hooks/useMembers';
-import { useContribution } from '../hooks/useContribution';
+import { StatsService } from '../services/stats.service';
+import { PersonService } from '../services/person.services';
+import { PersonSearchHitDto } from '../lib/types/models/person.type';
+import { OutstandingContributionDto, StatsDto } from '../lib/types/models/stats.type';
 
 const Dashboard: React.FC = () => {
     const navigate = useNavigate();
@@ -14,48 +16,57 @@ const Dashboard: React.FC = () => {
     // ÉTAT DE L'ANNÉE (La "Time Machine" du Dashboard)
     const [selectedYear, setSelectedYear] = useState(new Date().getFullYear());
     
-    const { allMembers } = useMemberLogic();
-    const { contributions, loading } = useContribution(selectedYear);
     const [searchTerm, setSearchTerm] = useState("");
     const [showGeoModal, setShowGeoModal] = useState(false);
+    const [yearStats, setYearStats] = useState<StatsDto[]>([]);
+    const [atRisk, setAtRisk] = useState<OutstandingContributionDto[]>([]);
+    const [searchResults, setSearchResults] = useState<PersonSearchHitDto[]>([]);
+
+    // AGRÉGATS SERVEUR (plus de réduction sur toute la liste côté navigateur)
+    useEffect(() => {
+        StatsService.getByYear(selectedYear).then(setYearStats).catch(() => setYearStats([]));
+        StatsService.getAtRisk(selectedYear, 10).then(setAtRisk).catch(() => setAtRisk([]));
+    }, [selectedYear]);
+
+    // RECHERCHE SERVEUR (index trigrammes, légèrement différée pendant la frappe)
+    useEffect(() => {
+        const term = searchTerm.trim();
+        if (term.length < 2) { setSearchResults([]); return; }
+        const timer = setTimeout(() => {
+            PersonService.search(term, 4).then(setSearchResults).catch(() => setSearchResults([]));
+        }, 200);
+        return () => clearTimeout(timer);
+    }, [searchTerm]);
 
     // CALCUL DES STATS SELON L'ANNÉE SÉLECTIONNÉE
     const stats = useMemo(() => {
-        // 1. Filtrer les membres qui étaient déjà inscrits à cette année là
-        const membersAtYear = allMembers.filter(m => {
-            const creationYear = new Date(m.createdAt).getFullYear();
-            return creationYear <= selectedYear;
-        });
-
-        // 2. Calculs financiers
-        const totalPaid = contributions.reduce((acc, curr) => acc + (curr.totalPaid || 0), 0);
-        const totalRemaining = contributions.reduce((acc, curr) => acc + (curr.remaining || 0), 0);
+        // 1-2. Effectifs et calculs financiers (agrégats serveur)
+        const totalMembers = yearStats.reduce((acc, curr) => acc + curr.memberCount, 0);
+        const totalContributions = yearStats.reduce((acc, curr) => acc + curr.contributionCount, 0);
+        const totalPaid = yearStats.reduce((acc, curr) => acc + curr.collected, 0);
+        const totalRemaining = yearStats.reduce((acc, curr) => acc + curr.outstanding, 0);
         const totalExpected = totalPaid + totalRemaining;
         const progressPercent = totalExpected > 0 ? (totalPaid / totalExpected) * 100 : 0;
 
-        // 3. Membres à Risque (Ceux qui ont le plus gros "remaining")
-        const atRisk = [...contributions]
-            .filter(c => c.remaining > 0)
-            .sort((a, b) => b.remaining - a.remaining)
-            .slice(0, 10);
+        // 3. Membres à Risque : top 10 des restes à payer, calculé côté serveur (voir getAtRisk)
 
         // 4. Districts & Tribus présents cette année là
-        const districts = Array.from(new Set(membersAtYear.map(m => m.districtName)));
-        const tributes = Array.from(new Set(membersAtYear.map(m => m.tributeName)));
+        const billedStats = yearStats.filter(s => s.contributionCount > 0);
+        const districts = Array.from(new Set(billedStats.map(s => s.districtName)));
+        const tributes = Array.from(new Set(billedStats.map(s => s.tributeName)));
 
         return {
-            totalMembers: membersAtYear.length,
+            totalMembers,
+            totalContributions,
             totalPaid,
             totalRemaining,
             progressPercent,
             atRisk,
             districts,
             tributes,
-            searchResults: allMembers.filter(m => 
-                `${m.firstName} ${m.lastName}`.toLowerCase().includes(searchTerm.toLowerCase())
-            ).slice(0, 4)
+            searchResults
         };
-    }, [allMembers, contributions, selectedYear, searchTerm]);
+    }, [atRisk, yearStats, searchResults]);
 
     return (
         <div className="p-4 md:p-10 bg-white min-h-screen pb-24 font-sans text-slate-700">
@@ -115,6 +126,7 @@ const Dashboard: React.FC = () => {
                     <div className="bg-white border-2 border-slate-200 p-8 rounded-[2.5rem] shadow-[0_6px_0_0_#f1f5f9]">
                         <p className="text-3xl font-black text-slate-800">{stats.totalMembers}</p>
                         <p className="text-xs font-black text-slate-400 uppercase tracking-wider italic">Inscrits en {selectedYear}</p>
+                        <p className="text-[10px] font-bold text-slate-400 italic">{stats.totalContributions} cotisations en {selectedYear}</p>
                     </div>
 
                     <div className="bg-brand-primary p-8 rounded-[2.5rem] shadow-[0_6px_0_0_#b91c1c] text-white">
@@ -141,7 +153,7 @@ const Dashboard: React.FC = () => {
                         
                         <div className="space-y-3">
                             {stats.atRisk.length > 0 ? stats.atRisk.map((c, i) => (
-                                <div key={i} className="flex items-center justify-between p-4 bg-slate-50 rounded-2xl border-2 border-transparent hover:border-orange-200 transition-all">
+                                <div key={c.contributionId} className="flex items-center justify-between p-4 bg-slate-50 rounded-2xl border-2 border-transparent hover:border-orange-200 transition-all">
                                     <div className="flex items-center gap-4">
                                         <div className="w-10 h-10 bg-white rounded-full flex items-center justify-center font-black text-brand-primary border-2 border-slate-100">
                                             {i + 1}
@@ -1,4 +1,4 @@
-import React, { useState, useMemo } from "react";
+import React, { useState } from "react";
 import { 
   AiOutlineSearch, AiOutlineEye, AiOutlineDelete, 
   AiOutlinePlus, AiOutlineFilter, AiOutlineEdit, AiOutlineClose,
@@ -9,15 +9,18 @@ import { useMemberLogic } from "../hooks/useMembers";
 import { MemberHelper } from "../lib/helper/member.helper";
 import Button from "../components/shared/Button";
 import { ActionButton } from "../components/shared/ActionButton";
-import { PersonResponseDto } from "../lib/types/models/person.type";
+import { PersonResponseDto, PersonSearchHitDto } from "../lib/types/models/person.type";
 import MemberForm from "../components/modals/MemberForm";
 import { useAuth } from "../context/AuthContext";
 import { THEME } from "../styles/theme";
+import toast from "react-hot-toast";
 
 const MemberManagement: React.FC = () => {
     const { currentTheme } = useAuth();
     const { 
-        members, allMembers, search, setSearch, 
+        members, totalElements, page, totalPages, setPage,
+        searchHits, loadMember,
+        districts, tributes, search, setSearch, 
         filterSex, setFilterSex, 
         filterDistrict, setFilterDistrict, 
         filterTribe, setFilterTribe, 
@@ -29,8 +32,13 @@ const MemberManagement: React.FC = () => {
         isOpen: false,
         memberToEdit: null
     });
-    const districtOptions = useMemo(() => Array.from(new Set(allMembers.map(m => m.districtName))), [allMembers]);
-    const tribeOptions = useMemo(() => Array.from(new Set(allMembers.map(m => m.tributeName))), [allMembers]);
+    const openMember = (hit: PersonSearchHitDto, mode: 'view' | 'edit') => {
+        loadMember(hit.id)
+            .then(m => mode === 'view' ? setViewMember(m) : setFormModal({ isOpen: true, memberToEdit: m }))
+            .catch(() => toast.error("Membre introuvable"));
+    };
+    const districtOptions = districts.map(d => ({ v: String(d.id), l: d.name }));
+    const tribeOptions = tributes.map(t => ({ v: String(t.id), l: t.name }));
 
     return (
         <div className="h-screen flex flex-col bg-brand-bg/20 overflow-hidden">
@@ -41,7 +49,7 @@ const MemberManagement: React.FC = () => {
                             Membres
                         </h1>
                         <p className="text-[9px] font-bold text-brand-muted uppercase mt-1 italic leading-none">
-                            {members.length} inscrits
+                            {searchHits ? `${searchHits.length} résultat(s)` : `${totalElements} inscrits`}
                         </p>
                     </div>
                     <Button
@@ -78,8 +86,8 @@ const MemberManagement: React.FC = () => {
                     {isFilterOpen && (
                         <div className="grid grid-cols-1 md:grid-cols-3 gap-2 p-3 bg-white rounded-xl border-2 border-brand-primary/20 animate-in fade-in duration-200">
                             <FilterSelect value={filterSex} onChange={setFilterSex} options={[{v:"MALE", l:"Hommes"}, {v:"FEMALE", l:"Femmes"}]} label="Sexe" />
-                            <FilterSelect value={filterDistrict} onChange={setFilterDistrict} options={districtOptions.map(d=>({v:d, l:d}))} label="District" />
-                            <FilterSelect value={filterTribe} onChange={setFilterTribe} options={tribeOptions.map(t=>({v:t, l:t}))} label="Tribu" />
+                            <FilterSelect value={filterDistrict} onChange={setFilterDistrict} options={districtOptions} label="District" />
+                            <FilterSelect value={filterTribe} onChange={setFilterTribe} options={tribeOptions} label="Tribu" />
                         </div>
                     )}
                 </div>
@@ -97,7 +105,26 @@ const MemberManagement: React.FC = () => {
                                 </tr>
                             </thead>
                             <tbody className="divide-y divide-brand-bg">
-                                {members.map(m => (
+                                {searchHits && searchHits.map(h => (
+                                    <tr key={h.id} className="hover:bg-brand-bg/30 transition-colors">
+                                        <td className="p-4">
+                                            <div className="font-black text-[11px] uppercase text-brand-text">{h.firstName} {h.lastName}</div>
+                                            <div className="text-[8px] font-bold text-brand-muted">{h.phoneNumber}</div>
+                                        </td>
+                                        <td className="p-4 text-[10px] font-bold uppercase">{h.districtName} <span className="text-[${currentTheme}]">({h.tributeName})</span></td>
+                                        <td className="p-4">
+                                            <PaymentStatusBadge active={h.isActiveMember} theme={currentTheme} />
+                                        </td>
+                                        <td className="p-4 text-right">
+                                            <div className="flex justify-end gap-2">
+                                                <ActionButton variant="view" onClick={() => openMember(h, 'view')} icon={<AiOutlineEye size={18} />} theme={currentTheme}/>
+                                                <ActionButton variant="edit" onClick={() => openMember(h, 'edit')} icon={<AiOutlineEdit size={18} />} theme={currentTheme}/>
+                                                <ActionButton variant="delete" onClick={() => deleteAction([h.id])} icon={<AiOutlineDelete size={18} />} theme={currentTheme}/>
+                                            </div>
+                                        </td>
+                                    </tr>
+                                ))}
+                                {!searchHits && members.map(m => (
                                     <tr key={m.id} className="hover:bg-brand-bg/30 transition-colors">
                                         <td className="p-4 flex items-center gap-3">
                                             <img src={m.imageUrl} className="w-10 h-10 rounded-xl object-cover border-2 border-brand-border shadow-md" alt="" />
@@ -123,7 +150,20 @@ const MemberManagement: React.FC = () => {
                         </table>
                     </div>
                     <div className="md:hidden space-y-3">
-                        {members.map(m => (
+                        {searchHits && searchHits.map(h => (
+                            <div key={h.id} className="bg-white p-4 rounded-3xl border-2 border-brand-border flex items-center justify-between shadow-md">
+                                <div className="truncate min-w-0">
+                                    <h4 className="font-black text-xs uppercase text-brand-text truncate leading-tight">{h.firstName} {h.lastName}</h4>
+                                    <PaymentStatusBadge active={h.isActiveMember} theme={currentTheme}/>
+                                </div>
+                                <div className="flex gap-1.5 shrink-0">
+                                    <ActionButton variant="view" onClick={() => openMember(h, 'view')} icon={<AiOutlineEye size={16} />} theme={currentTheme}/>
+                                    <ActionButton variant="edit" onClick={() => openMember(h, 'edit')} icon={<AiOutlineEdit size={16} />} theme={currentTheme}/>
+                                    <ActionButton variant="delete" onClick={() => deleteAction([h.id])} icon={<AiOutlineDelete size={16} />} theme={currentTheme}/>
+                                </div>
+                            </div>
+                        ))}
+                        {!searchHits && members.map(m => (
                             <div key={m.id} className="bg-white p-4 rounded-3xl border-2 border-brand-border flex items-center justify-between shadow-md">
                                 <div className="flex items-center gap-3 min-w-0">
                                     <img src={m.imageUrl} className="w-12 h-12 rounded-2xl object-cover border-2 border-brand-border shadow-sm shrink-0" alt="" />
@@ -140,6 +180,13 @@ const MemberManagement: React.FC = () => {
                             </div>
                         ))}
                     </div>
+                    {!searchHits && totalPages > 1 && (
+                        <div className="flex justify-center items-center gap-3 py-4">
+                            <button disabled={page === 0} onClick={() => setPage(page - 1)} className="px-4 py-2 rounded-xl border-2 border-brand-border bg-white font-black text-[10px] uppercase disabled:opacity-40">Précédent</button>
+                            <span className="text-[10px] font-bold text-brand-muted uppercase">Page {page + 1} / {totalPages}</span>
+                            <button disabled={page + 1 >= totalPages} onClick={() => setPage(page + 1)} className="px-4 py-2 rounded-xl border-2 border-brand-border bg-white font-black text-[10px] uppercase disabled:opacity-40">Suivant</button>
+                        </div>
+                    )}
                 </div>
             </main>
             {viewMember && (
@@ -182,7 +229,6 @@ const MemberManagement: React.FC = () => {
                 onClose={() => setFormModal({ isOpen: false, memberToEdit: null })} 
                 memberToEdit={formModal.memberToEdit}
                 onSuccess={refreshMembers}
-                allMembers={allMembers} 
             />
         </div>
     );
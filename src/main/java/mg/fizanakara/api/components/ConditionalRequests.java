@@ -0,0 +1,36 @@
+package mg.fizanakara.api.components;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// GET conditionnel : 304 sans corps si l'ETag du client est toujours valide
+public final class ConditionalRequests {
+    // private + no-cache : le navigateur garde la réponse mais la revalide à chaque fois ;
+    // posé avant Spring Security, qui sinon ajoute no-store et empêche toute revalidation
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private ConditionalRequests() {
+    }
+
+    // true → la réponse 304 est prête, le contrôleur renvoie null sans construire la liste.
+    // La chaîne de requête (curseur, page, filtres) entre dans l'ETag : une page ne valide jamais une autre.
+    public static boolean notModified(ServletWebRequest request, String tag) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        }
+        if (tag == null) return false;
+        return request.checkNotModified(tag + "-q" + queryHash(request.getRequest().getQueryString()));
+    }
+
+    private static String queryHash(String queryString) {
+        if (queryString == null || queryString.isEmpty()) return "0";
+        CRC32 crc = new CRC32();
+        crc.update(queryString.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,53 @@
+package mg.fizanakara.api.components;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+// IDs triables par date de création et sans collision : PREFIX + horodatage UTC à la milliseconde + suffixe base32
+// (compteur monotone du nœud sur 16 bits + 48 bits aléatoires pour départager les nœuds dans la même milliseconde)
+public final class TimeOrderedIdGenerator {
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int MAX_COUNTER = 0xFFFF;
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    private TimeOrderedIdGenerator() {
+    }
+
+    public static String next(String prefix) {
+        long millis;
+        int sequence;
+        synchronized (TimeOrderedIdGenerator.class) {
+            millis = Math.max(System.currentTimeMillis(), lastMillis);  // horloge qui recule : on reste sur la dernière valeur
+            if (millis == lastMillis) {
+                if (counter == MAX_COUNTER) {
+                    millis = lastMillis + 1;  // compteur épuisé : on emprunte la milliseconde suivante
+                    counter = 0;
+                } else {
+                    counter++;
+                }
+            } else {
+                counter = 0;
+            }
+            lastMillis = millis;
+            sequence = counter;
+        }
+
+        long suffix = ((long) sequence << 48) | (ThreadLocalRandom.current().nextLong() & 0xFFFF_FFFF_FFFFL);
+        return prefix + TIMESTAMP.format(Instant.ofEpochMilli(millis)) + "-" + base32(suffix);
+    }
+
+    // 64 bits → 13 caractères Crockford (ordre lexicographique = ordre numérique)
+    private static String base32(long value) {
+        char[] chars = new char[13];
+        for (int i = 12; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+}
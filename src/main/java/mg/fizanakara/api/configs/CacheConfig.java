@@ -0,0 +1,35 @@
+package mg.fizanakara.api.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+import static mg.fizanakara.api.services.ReferenceDataService.DISTRICTS;
+import static mg.fizanakara.api.services.ReferenceDataService.TRIBUTES;
+
+// Spring Cache (Caffeine) pour les données de référence. Caches déclarés d'avance : l'actuator publie
+// leurs métriques (cache.gets / cache.puts / cache.evictions, tag cache=districts|tributes).
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // TTL : filet de sécurité pour les écritures faites par une autre instance (l'éviction reste locale)
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.reference-ttl-minutes:60}") long ttlMinutes) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager(DISTRICTS, TRIBUTES);
+        caffeine.setCaffeine(Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .maximumSize(10)
+                .recordStats());
+        caffeine.setAllowNullValues(false);
+        // Éviction après commit : une lecture concurrente ne peut pas remettre en cache l'état d'avant l'écriture
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
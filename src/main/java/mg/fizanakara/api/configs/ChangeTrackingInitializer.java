@@ -0,0 +1,76 @@
+package mg.fizanakara.api.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.services.ChangeTrackingService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Suivi des modifications (ETag des listes), posé par triggers : couvre aussi les INSERT/UPDATE JDBC et ensemblistes.
+// - updated_at : horodatage par ligne (trigger BEFORE ... FOR EACH ROW)
+// - table_changes : 1 ligne par transaction écrivante et par table (trigger AFTER ... FOR EACH STATEMENT), visible
+//   exactement à son commit ; aucune ligne partagée n'est verrouillée par les écrivains (pas de contention ni d'interblocage)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeTrackingInitializer {
+    private static final List<String> TRACKED_TABLES = List.of("persons", "contributions", "payments");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeTrackingService changeTrackingService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void installTriggers() {
+        try {
+            // clock_timestamp (et non now()) : deux écritures d'une même transaction longue restent distinctes
+            jdbcTemplate.execute("CREATE OR REPLACE FUNCTION touch_updated_at() RETURNS trigger AS $$ " +
+                    "BEGIN NEW.updated_at := clock_timestamp(); RETURN NEW; END; $$ LANGUAGE plpgsql");
+            // txid 0 : ligne de base alimentée par le compactage (ChangeTrackingService.compact)
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS table_changes (" +
+                    "table_name varchar(64) NOT NULL, txid bigint NOT NULL, weight bigint NOT NULL DEFAULT 1, " +
+                    "PRIMARY KEY (table_name, txid))");
+            jdbcTemplate.execute("CREATE OR REPLACE FUNCTION record_table_change() RETURNS trigger AS $$ " +
+                    "BEGIN INSERT INTO table_changes (table_name, txid) VALUES (TG_TABLE_NAME, txid_current()) " +
+                    "ON CONFLICT DO NOTHING; RETURN NULL; END; $$ LANGUAGE plpgsql");
+            for (String table : TRACKED_TABLES) {
+                createTriggerIfMissing(table, "trg_" + table + "_touch",
+                        "BEFORE INSERT OR UPDATE ON " + table + " FOR EACH ROW EXECUTE FUNCTION touch_updated_at()");
+                createTriggerIfMissing(table, "trg_" + table + "_change",
+                        "AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON " + table + " FOR EACH STATEMENT EXECUTE FUNCTION record_table_change()");
+            }
+        } catch (DataAccessException e) {
+            // Installation concurrente par une autre réplique possible : l'état réel est vérifié ci-dessous
+            log.warn("Change tracking setup failed: {}", e.getMessage());
+        }
+        // Sans tous les triggers, un ETag ne changerait jamais : les GET conditionnels restent désactivés
+        if (changeTrackingTriggersInstalled()) {
+            changeTrackingService.enable();
+        } else {
+            log.warn("Change tracking triggers missing, list ETags disabled");
+        }
+    }
+
+    private void createTriggerIfMissing(String table, String trigger, String definition) {
+        jdbcTemplate.execute("DO $$ BEGIN " +
+                "IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = '" + trigger + "' " +
+                "AND tgrelid = '" + table + "'::regclass) THEN " +
+                "CREATE TRIGGER " + trigger + " " + definition + "; " +
+                "END IF; END $$");
+    }
+
+    private boolean changeTrackingTriggersInstalled() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_trigger WHERE tgname IN ('trg_persons_change', 'trg_contributions_change', 'trg_payments_change')",
+                    Integer.class);
+            return count != null && count == TRACKED_TABLES.size();
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package mg.fizanakara.api.configs;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class ImportConfig {
+
+    // Les listes des districts dépassent largement la limite multipart par défaut (1 Mo)
+    @Bean
+    public MultipartConfigElement multipartConfigElement(@Value("${app.imports.max-file-size:50MB}") DataSize maxFileSize) {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setMaxFileSize(maxFileSize);
+        factory.setMaxRequestSize(maxFileSize);
+        return factory.createMultipartConfig();
+    }
+}
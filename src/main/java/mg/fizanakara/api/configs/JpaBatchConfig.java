@@ -0,0 +1,20 @@
+package mg.fizanakara.api.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JpaBatchConfig {
+
+    // Batching JDBC Hibernate (saveAll, flush) ; application.properties garde la priorité
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(@Value("${app.jdbc.batch-size:500}") int batchSize) {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+}
@@ -0,0 +1,64 @@
+package mg.fizanakara.api.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Effectifs (member_stats) tenus par triggers FOR EACH STATEMENT sur persons : création, suppression (unitaire ou en masse),
+// déplacement, promotion et import JDBC sont tous couverts. Les tables de transition regroupent un lot entier
+// en 1 upsert par groupe touché (dans l'ordre des clés, pour éviter les interblocages entre lots concurrents).
+// Passe avant StatsService.initialize, qui amorce la table si elle est vide.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MemberStatsInitializer {
+    private static final String UPSERT =
+            "INSERT INTO member_stats AS s (year, district_id, tribute_id, member_delta, active_delta) " +
+            "SELECT EXTRACT(YEAR FROM current_date)::int, district_id, tribute_id, SUM(members), SUM(active) FROM (%s) d " +
+            "GROUP BY district_id, tribute_id HAVING SUM(members) <> 0 OR SUM(active) <> 0 " +
+            "ORDER BY district_id, tribute_id " +
+            "ON CONFLICT (year, district_id, tribute_id) DO UPDATE SET " +
+            "member_delta = s.member_delta + EXCLUDED.member_delta, active_delta = s.active_delta + EXCLUDED.active_delta";
+    private static final String ADDED =
+            "SELECT district_id, tribute_id, 1 AS members, CASE WHEN is_active_member THEN 1 ELSE 0 END AS active FROM new_rows";
+    private static final String REMOVED =
+            "SELECT district_id, tribute_id, -1, CASE WHEN is_active_member THEN -1 ELSE 0 END FROM old_rows";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void installTriggers() {
+        try {
+            jdbcTemplate.execute("CREATE OR REPLACE FUNCTION record_member_stats() RETURNS trigger AS $$ BEGIN " +
+                    "IF TG_OP = 'INSERT' THEN " + UPSERT.formatted(ADDED) + "; " +
+                    "ELSIF TG_OP = 'DELETE' THEN " + UPSERT.formatted(REMOVED) + "; " +
+                    "ELSE " + UPSERT.formatted(ADDED + " UNION ALL " + REMOVED) + "; " +
+                    "END IF; RETURN NULL; END; $$ LANGUAGE plpgsql");
+            // Une table de transition impose un trigger par évènement (et pas de liste de colonnes sur UPDATE)
+            createTriggerIfMissing("trg_persons_stats_insert",
+                    "AFTER INSERT ON persons REFERENCING NEW TABLE AS new_rows");
+            createTriggerIfMissing("trg_persons_stats_update",
+                    "AFTER UPDATE ON persons REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows");
+            createTriggerIfMissing("trg_persons_stats_delete",
+                    "AFTER DELETE ON persons REFERENCING OLD TABLE AS old_rows");
+        } catch (DataAccessException e) {
+            // Installation concurrente par une autre réplique possible ; la reconstruction nocturne corrige toute dérive
+            log.warn("Member stats triggers setup failed: {}", e.getMessage());
+        }
+    }
+
+    private void createTriggerIfMissing(String trigger, String definition) {
+        jdbcTemplate.execute("DO $$ BEGIN " +
+                "IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = '" + trigger + "' " +
+                "AND tgrelid = 'persons'::regclass) THEN " +
+                "CREATE TRIGGER " + trigger + " " + definition + " FOR EACH STATEMENT EXECUTE FUNCTION record_member_stats(); " +
+                "END IF; END $$");
+    }
+}
@@ -0,0 +1,34 @@
+package mg.fizanakara.api.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Soldes matérialisés (contributions.paid_total / payment_count) : rattrapage des bases existantes au démarrage.
+// Passe avant StatsService.initialize, qui agrège paid_total.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentBalanceInitializer {
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void reconcilePaymentBalances() {
+        int updated = jdbcTemplate.update(
+                "UPDATE contributions c SET paid_total = s.total, payment_count = s.cnt " +
+                "FROM (SELECT contribution_id, SUM(amount_paid) AS total, COUNT(*) AS cnt FROM payments GROUP BY contribution_id) s " +
+                "WHERE s.contribution_id = c.id AND (c.paid_total <> s.total OR c.payment_count <> s.cnt)");
+        if (updated > 0) log.info("Reconciled paid_total/payment_count on {} contributions", updated);
+
+        // Top impayés du tableau de bord (ContributionRepository.findTopOutstandingRows) : index d'expression partiel,
+        // seules les cotisations non soldées y figurent
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_contributions_year_outstanding ON contributions " +
+                "(year, (amount - paid_total) DESC, id) WHERE paid_total < amount");
+    }
+}
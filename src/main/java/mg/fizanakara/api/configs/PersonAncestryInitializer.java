@@ -0,0 +1,28 @@
+package mg.fizanakara.api.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.repository.PersonAncestryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+// Table de fermeture person_ancestry : amorçage des bases existantes (ou reconstruction si une personne n'y figure pas)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PersonAncestryInitializer {
+    private final PersonAncestryRepository personAncestryRepository;
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureAncestry() {
+        long missing = personAncestryRepository.countPersonsWithoutPath();
+        if (missing == 0) return;
+        long start = System.currentTimeMillis();
+        personAncestryRepository.deleteAllRows();
+        int rows = personAncestryRepository.insertFromPersons();
+        log.info("Rebuilt person_ancestry ({} rows, {} persons were missing) in {} ms", rows, missing, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,32 @@
+package mg.fizanakara.api.configs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Index de recherche membres (trigrammes + plein texte) : créés après la génération du schéma Hibernate
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchIndexInitializer {
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeSearchIndexes() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_persons_full_name_trgm ON persons " +
+                    "USING gin ((lower(first_name || ' ' || last_name)) gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_persons_phone_trgm ON persons " +
+                    "USING gin (phone_number gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_persons_full_name_tsv ON persons " +
+                    "USING gin (to_tsvector('simple', first_name || ' ' || last_name))");
+        } catch (DataAccessException e) {
+            log.warn("Member search indexes could not be created (pg_trgm requires CREATE privilege): {}", e.getMessage());
+        }
+    }
+}
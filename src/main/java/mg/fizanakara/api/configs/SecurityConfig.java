@@ -3,6 +3,7 @@ package mg.fizanakara.api.configs;
 import mg.fizanakara.api.security.CustomUserDetailsService;
 import mg.fizanakara.api.security.JwtAuthenticationFilter;
 import mg.fizanakara.api.security.JwtUtil;
+import mg.fizanakara.api.security.TokenVersionRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,10 +29,12 @@ import java.util.List;
 public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil, TokenVersionRegistry tokenVersionRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     // 🔐 AUTH MANAGER
@@ -49,7 +52,7 @@ public class SecurityConfig {
     // 🔐 JWT FILTER
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(userDetailsService, jwtUtil);
+        return new JwtAuthenticationFilter(userDetailsService, jwtUtil, tokenVersionRegistry);
     }
 
     // 🌍 CORS CONFIGURATION
@@ -2,6 +2,7 @@ package mg.fizanakara.api.configs;
 
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
@@ -11,9 +12,15 @@ public class SequenceInitializer {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    // Taille des blocs réservés par nœud pour les IDs membres (SequenceService en mode pooled)
+    @Value("${app.sequences.member-block-size:50}")
+    private int memberBlockSize;
+
     @PostConstruct
     public void initializeSequences() {
         jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS admin_seq START WITH 2 INCREMENT BY 1");
-        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS mbr_seq START WITH 1 INCREMENT BY 1");
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS mbr_seq START WITH 1 INCREMENT BY " + memberBlockSize);
+        // Bases existantes : passage au pas de bloc (les valeurs déjà distribuées restent en dessous)
+        jdbcTemplate.execute("ALTER SEQUENCE mbr_seq INCREMENT BY " + memberBlockSize);
     }
-}
\ No newline at end of file
+}
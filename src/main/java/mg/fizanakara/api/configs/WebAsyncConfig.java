@@ -0,0 +1,19 @@
+package mg.fizanakara.api.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    // Les exports en flux (StreamingResponseBody) dépassent le délai async par défaut du conteneur (30 s)
+    @Value("${app.exports.timeout-ms:1800000}")
+    private long exportTimeoutMs;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(exportTimeoutMs);
+    }
+}
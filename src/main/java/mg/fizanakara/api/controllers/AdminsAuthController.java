@@ -8,6 +8,7 @@ import mg.fizanakara.api.exceptions.AdminsException;
 import mg.fizanakara.api.models.Admins;
 import mg.fizanakara.api.models.enums.Gender;
 import mg.fizanakara.api.security.JwtUtil;
+import mg.fizanakara.api.security.TokenVersionRegistry;
 import mg.fizanakara.api.services.AdminsService;
 import mg.fizanakara.api.services.PasswordResetService;
 import mg.fizanakara.api.services.RefreshTokenService;
@@ -24,6 +25,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController("/api")
@@ -36,6 +38,7 @@ public class AdminsAuthController {
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
     private final PasswordResetService passwordResetService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     // REGISTER
     @PreAuthorize("hasRole('SUPERADMIN')")
@@ -67,9 +70,9 @@ public class AdminsAuthController {
 
             SecurityContextHolder.getContext().setAuthentication(auth);
 
-            String accessToken = jwtUtil.generateAccessToken(req.getEmail());
             Admins admin = adminsService.findByEmail(req.getEmail())
                     .orElseThrow(() -> new AdminsException("Admin non trouvé après authentification"));
+            String accessToken = generateAccessToken(admin);
 
             var rt = refreshTokenService.createRefreshToken(admin);
 
@@ -129,7 +132,7 @@ public class AdminsAuthController {
             return ResponseEntity.status(401).body("Refresh token expired");
         }
 
-        String accessToken = jwtUtil.generateAccessToken(stored.getAdmin().getEmail());
+        String accessToken = generateAccessToken(stored.getAdmin());
         log.debug("Refresh token success for: {}", stored.getAdmin().getEmail());
         return ResponseEntity.ok(Map.of("accessToken", accessToken));
     }
@@ -192,4 +195,10 @@ public class AdminsAuthController {
                     .body(Map.of("error", "Failed to update profile", "success", false));
         }
     }
+
+    // Access token sans état : rôles + version de jeton signés dans les claims
+    private String generateAccessToken(Admins admin) {
+        tokenVersionRegistry.publish(admin.getEmail(), admin.getTokenVersion());
+        return jwtUtil.generateAccessToken(admin.getEmail(), List.of("ROLE_" + admin.getRole().name()), admin.getTokenVersion());
+    }
 }
\ No newline at end of file
@@ -2,20 +2,26 @@ package mg.fizanakara.api.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.components.ConditionalRequests;
+import mg.fizanakara.api.dto.contributions.ContributionGenerationSummaryDto;
+import mg.fizanakara.api.dto.contributions.ContributionPageDto;
 import mg.fizanakara.api.dto.contributions.ContributionResponseDto;
 import mg.fizanakara.api.dto.contributions.ContributionUpdateDto;
 import mg.fizanakara.api.dto.contributions.ContributionYearDto;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+import mg.fizanakara.api.services.ChangeTrackingService;
 import mg.fizanakara.api.services.ContributionService;
-import org.springframework.data.domain.Pageable;  // ← AJOUT : Pour pagination optionnelle
-import org.springframework.data.web.PageableDefault;  // ← AJOUT : Default pagination
+import mg.fizanakara.api.services.OverdueSweepService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.Year;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admins/contributions")
@@ -23,14 +29,26 @@ import java.util.List;
 @Slf4j
 public class ContributionController {
     private final ContributionService contributionService;
+    private final OverdueSweepService overdueSweepService;
+    private final ChangeTrackingService changeTrackingService;
 
-    // GET ALL (avec pagination optionnelle)
+    // GET ALL (pagination keyset : passer nextCursor de la réponse précédente dans ?cursor=) ; 304 si rien n'a changé
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<ContributionResponseDto>> getAllContributions(
-            @PageableDefault(size = 20) Pageable pageable) {  // ← AJOUT : Pagination simple
-        log.info("Retrieving all contributions");
-        return ResponseEntity.ok(contributionService.getAllContributions());  // Adapté si service supporte pageable
+    public ResponseEntity<ContributionPageDto> getAllContributions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) ContributionStatus status,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Long districtId,
+            @RequestParam(required = false) Long tributeId,
+            ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, changeTrackingService.contributionsTag())) {
+            return null;
+        }
+        log.info("Retrieving contributions page (cursor: {}, size: {})", cursor, size);
+        return ResponseEntity.ok(contributionService.getContributionsPage(
+                cursor, size, status, year != null ? Year.of(year) : null, districtId, tributeId));
     }
 
     // GET BY PERSON AND YEAR (adapté pour refonte Person ; change memberId → personId)
@@ -38,11 +56,23 @@ public class ContributionController {
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<ContributionResponseDto>> getContributionsByPersonAndYear(
             @PathVariable String personId,  // ← MODIF : personId
-            @PathVariable Year year) {
+            @PathVariable Year year,
+            ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, changeTrackingService.contributionsTag())) {
+            return null;
+        }
         log.debug("Retrieving contributions for person ID: {} and year: {}", personId, year);
         return ResponseEntity.ok(contributionService.getContributionsByPersonAndYear(personId, year));
     }
 
+    // OVERDUE SWEEP (à la demande ; -1 si un balayage tourne déjà sur une autre instance)
+    @PostMapping("/overdue-sweep")
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    public ResponseEntity<Map<String, Integer>> sweepOverdue() {
+        log.info("Manual overdue sweep");
+        return ResponseEntity.ok(Map.of("marked", overdueSweepService.sweep()));
+    }
+
     // CREATE (batch pour année)
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -51,6 +81,14 @@ public class ContributionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(contributionService.createContributionsForYear(dto));
     }
 
+    // CREATE EN MASSE (résumé au lieu de la liste complète)
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ContributionGenerationSummaryDto> generateContributionsForYear(@RequestBody @Validated ContributionYearDto dto) {
+        log.info("Bulk generating annual contributions for year: {}", dto.getYear());
+        return ResponseEntity.status(HttpStatus.CREATED).body(contributionService.generateContributionsForYear(dto.getYear()));
+    }
+
     // UPDATE BY ID
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,73 @@
+package mg.fizanakara.api.controllers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.exports.ExportFormat;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+import mg.fizanakara.api.services.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Year;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/admins/exports")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+public class ExportController {
+    private final ExportService exportService;
+
+    // EXPORT COTISATIONS (?format=csv|ndjson&gzip=true&year=&status=)
+    @GetMapping("/contributions")
+    public ResponseEntity<StreamingResponseBody> exportContributions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) ContributionStatus status) {
+        ExportFormat exportFormat = parseFormat(format);
+        log.info("Exporting contributions as {} (year: {}, status: {}, gzip: {})", exportFormat, year, status, gzip);
+        Year exportYear = year != null ? Year.of(year) : null;
+        return streaming("contributions", exportFormat, gzip, year,
+                out -> exportService.exportContributions(out, exportFormat, gzip, exportYear, status));
+    }
+
+    // EXPORT PAIEMENTS (?format=csv|ndjson&gzip=true&year=)
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Integer year) {
+        ExportFormat exportFormat = parseFormat(format);
+        log.info("Exporting payments as {} (year: {}, gzip: {})", exportFormat, year, gzip);
+        Year exportYear = year != null ? Year.of(year) : null;
+        return streaming("payments", exportFormat, gzip, year,
+                out -> exportService.exportPayments(out, exportFormat, gzip, exportYear));
+    }
+
+    private ExportFormat parseFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(String name, ExportFormat format, boolean gzip, Integer year,
+                                                            StreamingResponseBody body) {
+        String fileName = name + (year != null ? "-" + year : "") + "." + format.getExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+}
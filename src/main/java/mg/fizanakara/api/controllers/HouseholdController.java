@@ -0,0 +1,30 @@
+package mg.fizanakara.api.controllers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.households.HouseholdRollupDto;
+import mg.fizanakara.api.services.HouseholdService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Year;
+
+@RestController
+@RequestMapping("/api/admins/households")
+@RequiredArgsConstructor
+@Slf4j
+public class HouseholdController {
+    private final HouseholdService householdService;
+
+    // ROLLUP (par ancêtre racine : facturé / payé / reste + membres en retard ; année en cours par défaut)
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<HouseholdRollupDto> getRollup(@RequestParam(required = false) Integer year,
+                                                        @RequestParam(defaultValue = "false") boolean behindOnly,
+                                                        @RequestParam(defaultValue = "false") boolean refresh) {
+        int targetYear = year != null ? year : Year.now().getValue();
+        log.info("Retrieving household rollup (year: {}, behindOnly: {}, refresh: {})", targetYear, behindOnly, refresh);
+        return ResponseEntity.ok(householdService.getRollup(targetYear, behindOnly, refresh));
+    }
+}
@@ -0,0 +1,34 @@
+package mg.fizanakara.api.controllers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.imports.ImportJobDto;
+import mg.fizanakara.api.services.ImportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+@RestController
+@RequestMapping("/api/admins/imports")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+public class ImportController {
+    private final ImportService importService;
+
+    // IMPORT MEMBRES (CSV ou XLSX, traité en arrière-plan ; suivre l'avancement via GET /{jobId})
+    @PostMapping(value = "/persons", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> importPersons(@RequestParam("file") MultipartFile file) {
+        log.info("Importing persons from {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.startPersonImport(file));
+    }
+
+    // AVANCEMENT + ERREURS PAR LIGNE
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobDto> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(importService.getJob(jobId));
+    }
+}
@@ -2,14 +2,21 @@ package mg.fizanakara.api.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.components.ConditionalRequests;
+import mg.fizanakara.api.dto.payments.PaymentBatchDto;
+import mg.fizanakara.api.dto.payments.PaymentBatchResultDto;
 import mg.fizanakara.api.dto.payments.PaymentDto;
 import mg.fizanakara.api.dto.payments.PaymentResponseDto;
+import mg.fizanakara.api.services.ChangeTrackingService;
+import mg.fizanakara.api.services.PaymentBatchService;
 import mg.fizanakara.api.services.PaymentService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -19,11 +26,16 @@ import java.util.List;
 @Slf4j
 public class PaymentController {
     private final PaymentService paymentService;
+    private final PaymentBatchService paymentBatchService;
+    private final ChangeTrackingService changeTrackingService;
 
-    // GET BY CONTRIBUTION ID
+    // GET BY CONTRIBUTION ID (304 si aucun paiement n'a changé depuis l'ETag envoyé)
     @GetMapping("/contribution/{contributionId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
-    public ResponseEntity<List<PaymentResponseDto>> getPaymentsByContributionId(@PathVariable String contributionId) {
+    public ResponseEntity<List<PaymentResponseDto>> getPaymentsByContributionId(@PathVariable String contributionId, ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, changeTrackingService.paymentsTag())) {
+            return null;
+        }
         log.debug("Retrieving payments for contribution ID: {}", contributionId);
         return ResponseEntity.ok(paymentService.getPaymentsByContributionId(contributionId));
     }
@@ -31,9 +43,21 @@ public class PaymentController {
     // CREATE
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
-    public ResponseEntity<PaymentResponseDto> createPayment(@RequestBody @Validated PaymentDto dto) {
+    public ResponseEntity<PaymentResponseDto> createPayment(@RequestBody @Validated PaymentDto dto,
+                                                            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 100)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to 100 characters");
+        }
         log.info("Creating payment for contribution ID: {} amount: {}", dto.getContributionId(), dto.getAmountPaid());
-        return ResponseEntity.status(HttpStatus.CREATED).body(paymentService.createPayment(dto));
+        return ResponseEntity.status(HttpStatus.CREATED).body(paymentService.createPayment(dto, idempotencyKey));
+    }
+
+    // BATCH (session de collecte : résultat ligne par ligne, les lignes rejetées n'annulent pas les autres)
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<PaymentBatchResultDto> createPaymentBatch(@RequestBody @Validated PaymentBatchDto dto) {
+        log.info("Ingesting payment batch of {} lines", dto.getPayments().size());
+        return ResponseEntity.ok(paymentBatchService.ingest(dto.getPayments()));
     }
 
     // UPDATE
@@ -2,14 +2,30 @@ package mg.fizanakara.api.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.components.ConditionalRequests;
+import mg.fizanakara.api.dto.person.BulkOperationResultDto;
+import mg.fizanakara.api.dto.person.FamilyTreeNodeDto;
+import mg.fizanakara.api.dto.person.BulkPersonRequestDto;
 import mg.fizanakara.api.dto.person.PersonDto;
 import mg.fizanakara.api.dto.person.PersonResponseDto;
+import mg.fizanakara.api.dto.person.PersonSearchHitDto;
+import mg.fizanakara.api.dto.person.PersonSummaryDto;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import mg.fizanakara.api.services.ChangeTrackingService;
+import mg.fizanakara.api.services.FamilyTreeService;
+import mg.fizanakara.api.services.PersonSearchService;
 import mg.fizanakara.api.services.PersonService;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -21,12 +37,38 @@ import java.util.Map;
 @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
 public class PersonController {
     private final PersonService personService;
+    private final PersonSearchService personSearchService;
+    private final FamilyTreeService familyTreeService;
+    private final ChangeTrackingService changeTrackingService;
 
-    // GET ALL
+    // GET ALL (paginé + filtres : ?page=0&size=20&status=&gender=&districtId=&tributeId=&active=&birthYearFrom=&birthYearTo=)
+    // 304 Not Modified si aucune personne / référence n'a changé depuis l'ETag envoyé (If-None-Match)
     @GetMapping
-    public ResponseEntity<List<PersonResponseDto>> getAllPersons() {
-        log.info("Retrieving all persons");
-        return ResponseEntity.ok(personService.getAllPersons());
+    public ResponseEntity<PagedModel<PersonSummaryDto>> getAllPersons(
+            @RequestParam(required = false) MemberStatus status,
+            @RequestParam(required = false) Gender gender,
+            @RequestParam(required = false) Long districtId,
+            @RequestParam(required = false) Long tributeId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) Integer birthYearFrom,
+            @RequestParam(required = false) Integer birthYearTo,
+            @PageableDefault(size = 20, sort = {"lastName", "firstName", "id"}, direction = Sort.Direction.ASC) Pageable pageable,
+            ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, changeTrackingService.personsTag())) {
+            return null;
+        }
+        log.info("Retrieving persons page {}", pageable.getPageNumber());
+        return ResponseEntity.ok(new PagedModel<>(personService.getPersonsPage(
+                status, gender, districtId, tributeId, active, birthYearFrom, birthYearTo, pageable)));
+    }
+
+    // SEARCH (nom / prénom / téléphone, tolérant aux fautes et aux préfixes : ?q=&page=0&size=20)
+    @GetMapping("/search")
+    public ResponseEntity<PagedModel<PersonSearchHitDto>> searchPersons(
+            @RequestParam String q,
+            @PageableDefault(size = 20) Pageable pageable) {
+        log.info("Searching persons for '{}'", q);
+        return ResponseEntity.ok(new PagedModel<>(personSearchService.search(q, pageable)));
     }
 
     // GET BY ID
@@ -65,6 +107,16 @@ public class PersonController {
         return ResponseEntity.ok(personService.getChildrenByParentId(parentId));
     }
 
+    // FAMILY TREE (1 jointure sur la table de fermeture person_ancestry ; balances=true ajoute les soldes de cotisation par nœud, filtrables par année)
+    @GetMapping("/{id}/family-tree")
+    public ResponseEntity<FamilyTreeNodeDto> getFamilyTree(@PathVariable String id,
+                                                           @RequestParam(defaultValue = "" + FamilyTreeService.DEFAULT_DEPTH) int depth,
+                                                           @RequestParam(defaultValue = "false") boolean balances,
+                                                           @RequestParam(required = false) Integer year) {
+        log.info("Retrieving family tree for person ID: {} (depth: {}, balances: {})", id, depth, balances);
+        return ResponseEntity.ok(familyTreeService.getFamilyTree(id, depth, balances, year));
+    }
+
     // UPDATE
     @PutMapping("/{id}")
     public ResponseEntity<PersonResponseDto> updatePerson(@PathVariable String id, @RequestBody PersonDto dto) {
@@ -80,6 +132,32 @@ public class PersonController {
         return ResponseEntity.ok(Map.of("message", "Person deleted successfully", "success", true));
     }
 
+    // BULK (jusqu'à plusieurs milliers d'IDs, une transaction, résultat par ID)
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationResultDto> bulkDelete(@RequestBody @Validated BulkPersonRequestDto dto) {
+        log.info("Bulk deleting {} persons", dto.getIds().size());
+        return ResponseEntity.ok(personService.bulkDelete(dto.getIds()));
+    }
+
+    @PostMapping("/bulk/promote")
+    public ResponseEntity<BulkOperationResultDto> bulkPromote(@RequestBody @Validated BulkPersonRequestDto dto) {
+        log.info("Bulk promoting {} persons", dto.getIds().size());
+        return ResponseEntity.ok(personService.bulkPromote(dto.getIds()));
+    }
+
+    // PROMOTION DES NOUVEAUX MAJEURS (même traitement que la tâche planifiée, à la demande)
+    @PostMapping("/promotions/run")
+    public ResponseEntity<BulkOperationResultDto> promoteNewAdults() {
+        log.info("Running age-based promotion");
+        return ResponseEntity.ok(personService.promoteNewAdults());
+    }
+
+    @PostMapping("/bulk/move")
+    public ResponseEntity<BulkOperationResultDto> bulkMove(@RequestBody @Validated BulkPersonRequestDto dto) {
+        log.info("Bulk moving {} persons (district: {}, tribute: {})", dto.getIds().size(), dto.getDistrictId(), dto.getTributeId());
+        return ResponseEntity.ok(personService.bulkMove(dto.getIds(), dto.getDistrictId(), dto.getTributeId()));
+    }
+
     // DELETE ALL
     @DeleteMapping("/delete-all")
     public ResponseEntity<Map<String, Object>> deleteAllPersons() {
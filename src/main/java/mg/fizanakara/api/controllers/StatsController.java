@@ -0,0 +1,47 @@
+package mg.fizanakara.api.controllers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.stats.OutstandingContributionDto;
+import mg.fizanakara.api.dto.stats.StatsDto;
+import mg.fizanakara.api.services.StatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admins/stats")
+@RequiredArgsConstructor
+@Slf4j
+public class StatsController {
+    private final StatsService statsService;
+
+    //  🔒 ALL ROUTES IS PROTECTED BY ADMIN TOKEN
+    // GET (par année / district / tribu ; toutes les années si year absent)
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<List<StatsDto>> getStats(@RequestParam(required = false) Integer year) {
+        log.info("Récupération des statistiques (année : {})", year);
+        return ResponseEntity.ok(statsService.getStats(year));
+    }
+
+    // TOP IMPAYÉS D'UNE ANNÉE (?year=2025&limit=10)
+    @GetMapping("/at-risk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
+    public ResponseEntity<List<OutstandingContributionDto>> getAtRisk(@RequestParam int year,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        log.info("Récupération des plus gros impayés (année : {}, limite : {})", year, limit);
+        return ResponseEntity.ok(statsService.getTopOutstanding(year, limit));
+    }
+
+    // REBUILD (recalcul complet depuis les tables sources)
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('SUPERADMIN')")
+    public ResponseEntity<Map<String, Integer>> rebuild() {
+        log.info("Reconstruction des statistiques");
+        return ResponseEntity.ok(Map.of("rows", statsService.rebuild()));
+    }
+}
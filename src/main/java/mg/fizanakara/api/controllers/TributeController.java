@@ -2,14 +2,17 @@ package mg.fizanakara.api.controllers;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.components.ConditionalRequests;
 import mg.fizanakara.api.dto.tributes.TributeDto;
 import mg.fizanakara.api.models.Tribute;
+import mg.fizanakara.api.services.ChangeTrackingService;
 import mg.fizanakara.api.services.TributeService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -20,12 +23,16 @@ import java.util.Map;
 @Slf4j
 public class TributeController {
     private final TributeService tributeService;
+    private final ChangeTrackingService changeTrackingService;
 
     //  🔒 ALL ROUTES IS PROTECTED BY ADMIN TOKEN
-    // GET ALL
+    // GET ALL (304 si la liste en cache n'a pas changé depuis l'ETag envoyé)
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPERADMIN')")
-    public ResponseEntity<List<Tribute>> getAllTributes() {
+    public ResponseEntity<List<Tribute>> getAllTributes(ServletWebRequest request) {
+        if (ConditionalRequests.notModified(request, changeTrackingService.tributesTag())) {
+            return null;
+        }
         log.info("Recuperate all districts");
         return ResponseEntity.ok(tributeService.getAllTributes());
     }
@@ -0,0 +1,12 @@
+package mg.fizanakara.api.dto.admins;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Projection (email, version de jeton) pour le registre de révocation en mémoire
+@Data
+@AllArgsConstructor
+public class AdminTokenVersionDto {
+    private String email;
+    private int tokenVersion;
+}
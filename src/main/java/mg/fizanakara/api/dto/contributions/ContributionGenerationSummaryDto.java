@@ -0,0 +1,19 @@
+package mg.fizanakara.api.dto.contributions;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Year;
+
+// Résumé de la génération annuelle en masse (au lieu de la liste complète des DTO)
+@Data
+@AllArgsConstructor
+public class ContributionGenerationSummaryDto {
+    private Year year;
+    private int eligibleCount;
+    private int createdCount;
+    private int skippedCount;
+    private BigDecimal totalBilled;
+    private long elapsedMs;
+}
@@ -0,0 +1,15 @@
+package mg.fizanakara.api.dto.contributions;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+// Page keyset : nextCursor est opaque pour le client (null quand il n'y a plus de page)
+@Data
+@AllArgsConstructor
+public class ContributionPageDto {
+    private List<ContributionResponseDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,32 @@
+package mg.fizanakara.api.dto.contributions;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.Contribution;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+
+// Projection plate (JPQL constructor expression) : contribution + nom du membre, sans charger les entités
+@Data
+@AllArgsConstructor
+public class ContributionRow {
+    private String id;
+    private Year year;
+    private BigDecimal amount;
+    private ContributionStatus status;
+    private LocalDate dueDate;
+    private String memberId;
+    private String memberFirstName;
+    private String memberLastName;
+    private String childId;
+    private BigDecimal paidTotal;
+
+    public ContributionRow(Contribution contribution) {
+        this(contribution.getId(), contribution.getYear(), contribution.getAmount(), contribution.getStatus(),
+                contribution.getDueDate(), contribution.getMember().getId(), contribution.getMember().getFirstName(),
+                contribution.getMember().getLastName(), contribution.getChildId(), contribution.getPaidTotal());
+    }
+}
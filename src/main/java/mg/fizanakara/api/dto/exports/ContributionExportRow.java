@@ -0,0 +1,27 @@
+package mg.fizanakara.api.dto.exports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Year;
+
+// Ligne du grand livre des cotisations (export en flux, jamais d'entité chargée)
+@Data
+@AllArgsConstructor
+public class ContributionExportRow {
+    private String id;
+    private Year year;
+    private String memberId;
+    private String memberFirstName;
+    private String memberLastName;
+    private String districtName;
+    private String tributeName;
+    private BigDecimal amount;
+    private BigDecimal totalPaid;
+    private BigDecimal remaining;  // même valeur en CSV et en NDJSON
+    private ContributionStatus status;
+    private LocalDate dueDate;
+}
@@ -0,0 +1,24 @@
+package mg.fizanakara.api.dto.exports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.Year;
+
+// Ligne du journal des paiements (export en flux)
+@Data
+@AllArgsConstructor
+public class PaymentExportRow {
+    private String id;
+    private String contributionId;
+    private Year year;
+    private String memberId;
+    private String memberFirstName;
+    private String memberLastName;
+    private BigDecimal amountPaid;
+    private LocalDateTime paymentDate;
+    private PaymentStatus status;
+}
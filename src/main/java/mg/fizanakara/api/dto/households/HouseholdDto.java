@@ -0,0 +1,22 @@
+package mg.fizanakara.api.dto.households;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Foyer = ancêtre racine (sans parent) et toute sa descendance
+@Data
+@AllArgsConstructor
+public class HouseholdDto {
+    private String rootId;
+    private String rootFirstName;
+    private String rootLastName;
+    private String districtName;
+    private int billedMembers;
+    private BigDecimal billed;
+    private BigDecimal paid;
+    private BigDecimal remaining;
+    private List<HouseholdMemberDto> membersBehind;
+}
@@ -0,0 +1,23 @@
+package mg.fizanakara.api.dto.households;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+
+// Membre du foyer en retard de paiement sur l'année (cotisation non soldée)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HouseholdMemberDto {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private String contributionId;
+    private ContributionStatus status;
+    private BigDecimal amount;
+    private BigDecimal paid;
+    private BigDecimal remaining;
+}
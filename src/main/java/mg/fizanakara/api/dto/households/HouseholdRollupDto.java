@@ -0,0 +1,17 @@
+package mg.fizanakara.api.dto.households;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// computedAt : date du calcul mis en cache (les paiements plus récents n'y figurent qu'après ?refresh=true ou expiration)
+@Data
+@AllArgsConstructor
+public class HouseholdRollupDto {
+    private int year;
+    private LocalDateTime computedAt;
+    private int householdCount;
+    private List<HouseholdDto> households;
+}
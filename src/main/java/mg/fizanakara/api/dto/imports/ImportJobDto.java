@@ -0,0 +1,27 @@
+package mg.fizanakara.api.dto.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Avancement d'un import asynchrone (instantané renvoyé par GET /api/admins/imports/{id})
+@Data
+@AllArgsConstructor
+public class ImportJobDto {
+    private String id;
+    private String fileName;
+    private ImportState state;
+    private long processedRows;
+    private long importedRows;
+    private long duplicateRows;
+    private long failedRows;
+    private long contributionsCreated;
+    private List<ImportRowErrorDto> errors;
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public enum ImportState { PENDING, RUNNING, COMPLETED, FAILED }
+}
@@ -0,0 +1,11 @@
+package mg.fizanakara.api.dto.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportRowErrorDto {
+    private long row;  // Numéro de ligne dans le fichier (en-tête = 1)
+    private String message;
+}
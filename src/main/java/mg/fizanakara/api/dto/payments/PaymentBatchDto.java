@@ -0,0 +1,14 @@
+package mg.fizanakara.api.dto.payments;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PaymentBatchDto {
+    @NotEmpty(message = "At least one payment is required")
+    @Size(max = 2000, message = "A batch cannot exceed 2000 payments")
+    private List<PaymentBatchLineDto> payments;
+}
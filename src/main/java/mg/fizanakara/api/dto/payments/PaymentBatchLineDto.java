@@ -0,0 +1,22 @@
+package mg.fizanakara.api.dto.payments;
+
+import lombok.Data;
+import mg.fizanakara.api.models.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Ligne d'une session d'encaissement : validée ligne par ligne côté service (rejet individuel, pas de 400 global)
+@Data
+public class PaymentBatchLineDto {
+    private String contributionId;
+
+    private BigDecimal amountPaid;
+
+    private LocalDateTime paymentDate;
+
+    private PaymentStatus status;
+
+    // Équivalent de l'en-tête Idempotency-Key, par ligne
+    private String idempotencyKey;
+}
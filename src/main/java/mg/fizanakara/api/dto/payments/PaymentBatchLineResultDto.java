@@ -0,0 +1,17 @@
+package mg.fizanakara.api.dto.payments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Résultat par ligne, dans l'ordre de la requête (index = position dans payments)
+@Data
+@AllArgsConstructor
+public class PaymentBatchLineResultDto {
+    public enum Outcome { ACCEPTED, REPLAYED, REJECTED }
+
+    private int index;
+    private String contributionId;
+    private Outcome outcome;
+    private String paymentId;
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package mg.fizanakara.api.dto.payments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PaymentBatchResultDto {
+    private int requested;
+    private int accepted;
+    private int rejected;
+    private List<PaymentBatchLineResultDto> lines;
+}
@@ -0,0 +1,19 @@
+package mg.fizanakara.api.dto.payments;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Projection plate d'une ligne de paiement (chargée en lot avec IN (...))
+@Data
+@AllArgsConstructor
+public class PaymentRow {
+    private String id;
+    private String contributionId;
+    private BigDecimal amountPaid;
+    private LocalDateTime paymentDate;
+    private PaymentStatus status;
+}
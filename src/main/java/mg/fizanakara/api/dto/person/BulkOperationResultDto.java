@@ -0,0 +1,16 @@
+package mg.fizanakara.api.dto.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// Résultat compact : IDs traités + motif d'échec par ID
+@Data
+@AllArgsConstructor
+public class BulkOperationResultDto {
+    private int requested;
+    private List<String> succeeded;
+    private Map<String, String> failed;
+}
@@ -0,0 +1,17 @@
+package mg.fizanakara.api.dto.person;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkPersonRequestDto {  // Input des opérations en masse (delete / promote / move)
+    @NotEmpty(message = "At least one ID is required")
+    @Size(max = 10000, message = "At most 10000 IDs per request")
+    private List<String> ids;
+
+    private Long districtId;  // move uniquement
+    private Long tributeId;   // move uniquement
+}
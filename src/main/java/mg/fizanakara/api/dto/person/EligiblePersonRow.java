@@ -0,0 +1,21 @@
+package mg.fizanakara.api.dto.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.MemberStatus;
+
+import java.time.LocalDate;
+
+// Projection minimale pour la génération annuelle (pas d'entité Person dans le contexte de persistance)
+@Data
+@AllArgsConstructor
+public class EligiblePersonRow {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+    private MemberStatus status;
+    private boolean isActiveMember;
+    private Long districtId;
+    private Long tributeId;
+}
@@ -0,0 +1,50 @@
+package mg.fizanakara.api.dto.person;
+
+import lombok.Value;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Nœud immuable de l'arbre familial (enfants figés à la construction)
+@Value
+public class FamilyTreeNodeDto {
+    String id;
+    String firstName;
+    String lastName;
+    LocalDate birthDate;
+    Gender gender;
+    MemberStatus status;
+    boolean isActiveMember;
+    int depth;
+    // true : profondeur max atteinte alors que ce nœud a encore des enfants (redemander avec ce nœud comme racine)
+    boolean truncated;
+    // Taille totale du sous-arbre (toutes générations, même au-delà de depth)
+    long descendantCount;
+
+    // Soldes de cotisation (null si balances=false)
+    BigDecimal billed;
+    BigDecimal paid;
+    BigDecimal outstanding;
+
+    List<FamilyTreeNodeDto> children;
+
+    public FamilyTreeNodeDto(FamilyTreeRow row, List<FamilyTreeNodeDto> children) {
+        this.id = row.getId();
+        this.firstName = row.getFirstName();
+        this.lastName = row.getLastName();
+        this.birthDate = row.getBirthDate();
+        this.gender = row.getGender();
+        this.status = row.getStatus();
+        this.isActiveMember = row.isActiveMember();
+        this.depth = row.getDepth();
+        this.truncated = row.isTruncated();
+        this.descendantCount = row.getDescendantCount();
+        this.billed = row.getBilled();
+        this.paid = row.getPaid();
+        this.outstanding = row.getBilled() != null ? row.getBilled().subtract(row.getPaid()) : null;
+        this.children = List.copyOf(children);
+    }
+}
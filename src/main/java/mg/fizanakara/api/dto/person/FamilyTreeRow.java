@@ -0,0 +1,28 @@
+package mg.fizanakara.api.dto.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Ligne plate de l'arbre (une par personne, lue via person_ancestry)
+@Data
+@AllArgsConstructor
+public class FamilyTreeRow {
+    private String id;
+    private String parentId;
+    private int depth;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+    private Gender gender;
+    private MemberStatus status;
+    private boolean isActiveMember;
+    private boolean truncated;
+    private long descendantCount;
+    private BigDecimal billed;
+    private BigDecimal paid;
+}
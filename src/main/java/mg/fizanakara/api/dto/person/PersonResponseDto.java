@@ -1,12 +1,10 @@
 package mg.fizanakara.api.dto.person;
 
 import lombok.Data;  // ← ASSURE : Génère getters/setters/toString/equals
-import mg.fizanakara.api.models.Person;
 import mg.fizanakara.api.models.enums.Gender;
 import mg.fizanakara.api.models.enums.MemberStatus;
 
 import java.time.LocalDate;
-import java.util.List;
 
 @Data  // ← FIX : Génère setIsActiveMember, etc.
 public class PersonResponseDto {  // Output unifié
@@ -31,8 +29,7 @@ public class PersonResponseDto {  // Output unifié
     // Hiérarchie (nouveau)
     private String parentId;  // Lien vers parent
     private String parentName;  // Nom concat parent
-    private int childrenCount;  // Nombre d'enfants directs
-    private List<Person> children = getChildren();
+    private int childrenCount;  // Nombre d'enfants directs (détail via /{parentId}/children)
 
     public void setIsActiveMember(boolean isActiveMember) {
         this.isActiveMember = isActiveMember;
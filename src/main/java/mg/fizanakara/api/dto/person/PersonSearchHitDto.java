@@ -0,0 +1,20 @@
+package mg.fizanakara.api.dto.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.MemberStatus;
+
+// Résultat de recherche membre (classé par score de pertinence)
+@Data
+@AllArgsConstructor
+public class PersonSearchHitDto {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private MemberStatus status;
+    private boolean isActiveMember;
+    private String districtName;
+    private String tributeName;
+    private double score;
+}
@@ -0,0 +1,45 @@
+package mg.fizanakara.api.dto.person;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+
+import java.time.LocalDate;
+
+// Projection plate pour la liste paginée (1 requête SQL avec jointures, sans entités ni collections)
+@Data
+@AllArgsConstructor
+public class PersonSummaryDto {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+    private Gender gender;
+    private String imageUrl;
+    private String phoneNumber;
+    private LocalDate createdAt;
+    private Long sequenceNumber;
+    private MemberStatus status;
+    private boolean isActiveMember;
+
+    private Long districtId;
+    private String districtName;
+    private Long tributeId;
+    private String tributeName;
+
+    private String parentId;
+    private String parentName;
+    private long childrenCount;
+
+    public PersonSummaryDto(String id, String firstName, String lastName, LocalDate birthDate, Gender gender,
+                            String imageUrl, String phoneNumber, LocalDate createdAt, Long sequenceNumber,
+                            MemberStatus status, boolean isActiveMember, Long districtId, String districtName,
+                            Long tributeId, String tributeName, String parentId, String parentFirstName,
+                            String parentLastName, Long childrenCount) {
+        this(id, firstName, lastName, birthDate, gender, imageUrl, phoneNumber, createdAt, sequenceNumber,
+                status, isActiveMember, districtId, districtName, tributeId, tributeName, parentId,
+                parentId != null ? parentFirstName + " " + parentLastName : null,
+                childrenCount != null ? childrenCount : 0L);
+    }
+}
@@ -0,0 +1,75 @@
+package mg.fizanakara.api.dto.reference;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+// Instantané immuable d'une table de référence (districts, tribus) : ID → entité et nom normalisé → ID
+public final class ReferenceData<T> {
+    private final List<T> all;
+    private final Map<Long, T> byId;
+    private final Map<String, Long> idByName;
+    private final Function<T, String> nameOf;
+    private final String fingerprint;
+
+    private ReferenceData(Collection<T> entries, Function<T, Long> idOf, Function<T, String> nameOf) {
+        Map<Long, T> ids = new LinkedHashMap<>();
+        Map<String, Long> names = new LinkedHashMap<>();
+        CRC32 crc = new CRC32();
+        for (T entry : entries) {
+            ids.put(idOf.apply(entry), entry);
+            names.putIfAbsent(normalizeName(nameOf.apply(entry)), idOf.apply(entry));
+            crc.update((idOf.apply(entry) + ":" + nameOf.apply(entry) + "|").getBytes(StandardCharsets.UTF_8));
+        }
+        this.all = List.copyOf(entries);
+        this.byId = Collections.unmodifiableMap(ids);
+        this.idByName = Collections.unmodifiableMap(names);
+        this.nameOf = nameOf;
+        this.fingerprint = entries.size() + "-" + Long.toHexString(crc.getValue());
+    }
+
+    public static <T> ReferenceData<T> of(Collection<T> entries, Function<T, Long> idOf, Function<T, String> nameOf) {
+        return new ReferenceData<>(entries, idOf, nameOf);
+    }
+
+    public List<T> getAll() {
+        return all;
+    }
+
+    // Empreinte du contenu (nombre + CRC des id/nom) : change dès qu'une entrée est ajoutée, renommée ou supprimée
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Optional<T> findById(Long id) {
+        return Optional.ofNullable(id != null ? byId.get(id) : null);
+    }
+
+    public boolean contains(Long id) {
+        return id != null && byId.containsKey(id);
+    }
+
+    public String nameOf(Long id) {
+        T entry = id != null ? byId.get(id) : null;
+        return entry != null ? nameOf.apply(entry) : null;
+    }
+
+    // Recherche tolérante : casse, espaces et accents ignorés ("Antsirabé " == "antsirabe")
+    public Optional<Long> findIdByName(String name) {
+        return Optional.ofNullable(name != null ? idByName.get(normalizeName(name)) : null);
+    }
+
+    public static String normalizeName(String value) {
+        return Normalizer.normalize(value.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
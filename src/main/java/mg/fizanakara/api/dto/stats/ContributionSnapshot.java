@@ -0,0 +1,19 @@
+package mg.fizanakara.api.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+
+// État d'une cotisation vu par les agrégats (avant / après une écriture)
+@Data
+@AllArgsConstructor
+public class ContributionSnapshot {
+    private int year;
+    private Long districtId;
+    private Long tributeId;
+    private ContributionStatus status;
+    private BigDecimal amount;
+    private BigDecimal paid;
+}
@@ -0,0 +1,22 @@
+package mg.fizanakara.api.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+
+// Projection d'une ligne d'agrégat (noms district/tribu joints)
+@Data
+@AllArgsConstructor
+public class ContributionStatRow {
+    private Integer year;
+    private Long districtId;
+    private String districtName;
+    private Long tributeId;
+    private String tributeName;
+    private ContributionStatus status;
+    private long contributionCount;
+    private BigDecimal billedTotal;
+    private BigDecimal collectedTotal;
+}
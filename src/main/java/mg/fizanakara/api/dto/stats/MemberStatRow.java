@@ -0,0 +1,17 @@
+package mg.fizanakara.api.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Projection d'une variation d'effectif annuelle (noms district/tribu joints)
+@Data
+@AllArgsConstructor
+public class MemberStatRow {
+    private Integer year;
+    private Long districtId;
+    private String districtName;
+    private Long tributeId;
+    private String tributeName;
+    private long memberDelta;
+    private long activeDelta;
+}
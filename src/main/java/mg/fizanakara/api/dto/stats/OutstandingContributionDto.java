@@ -0,0 +1,20 @@
+package mg.fizanakara.api.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+
+// Une ligne du top des impayés (tableau de bord) : reste à payer calculé côté serveur
+@Data
+@AllArgsConstructor
+public class OutstandingContributionDto {
+    private String contributionId;
+    private String memberId;
+    private String memberName;
+    private ContributionStatus status;
+    private BigDecimal amount;
+    private BigDecimal paid;
+    private BigDecimal remaining;
+}
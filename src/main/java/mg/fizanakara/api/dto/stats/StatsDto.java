@@ -0,0 +1,26 @@
+package mg.fizanakara.api.dto.stats;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Une ligne du tableau de bord : (année, district, tribu)
+@Data
+@AllArgsConstructor
+public class StatsDto {
+    private Integer year;
+    private Long districtId;
+    private String districtName;
+    private Long tributeId;
+    private String tributeName;
+    private long memberCount;        // personnes inscrites dans le groupe à la fin de l'année (member_stats)
+    private long activeMemberCount;  // dont membres actifs (promus à 18 ans)
+    private long contributionCount;  // cotisations de l'année pour le groupe
+    private BigDecimal billed;
+    private BigDecimal collected;
+    private BigDecimal outstanding;
+    private Map<ContributionStatus, Long> statusHistogram;
+}
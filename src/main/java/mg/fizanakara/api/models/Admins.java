@@ -33,6 +33,11 @@ public class Admins extends Users {
     @Builder.Default
     private Role role = Role.ADMIN;
 
+    // Incrémentée à chaque changement d'identifiants : invalide les access tokens déjà émis
+    @Builder.Default
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+
     @OneToMany(mappedBy = "admin", cascade = CascadeType.REMOVE, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonIgnore
     @Builder.Default
@@ -14,13 +14,17 @@ import mg.fizanakara.api.models.enums.ContributionStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Year;
 
 @Entity
 @Table(name = "contributions", indexes = {
         @Index(name = "idx_contributions_member_year", columnList = "member_id, year"),
         @Index(name = "idx_contributions_status", columnList = "status"),
-        @Index(name = "idx_contributions_child", columnList = "child_id")
+        @Index(name = "idx_contributions_child", columnList = "child_id"),
+        @Index(name = "idx_contributions_year_id", columnList = "year, id"),  // Pagination keyset
+        @Index(name = "idx_contributions_status_due", columnList = "status, due_date"),  // Balayage OVERDUE
+        @Index(name = "idx_contributions_year_member", columnList = "year, member_id")  // Couvrant : membres déjà facturés (index-only scan)
 })
 @Getter
 @Setter
@@ -62,6 +66,24 @@ public class Contribution {
     @Column(name = "sequence_suffix", nullable = true)
     private String sequenceSuffix;
 
+    // Solde matérialisé : modifié uniquement par l'incrément atomique SQL des paiements (jamais par un save d'entité)
+    @Column(name = "paid_total", nullable = false, updatable = false, precision = 10, scale = 2, columnDefinition = "numeric(10,2) default 0")
+    @Builder.Default
+    private BigDecimal paidTotal = BigDecimal.ZERO;
+
+    @Column(name = "payment_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int paymentCount = 0;
+
+    // Verrouillage optimiste (les INSERT JDBC de la génération annuelle reçoivent le défaut 0)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Posé par le trigger touch_updated_at : couvre aussi l'incrément SQL de paid_total et le balayage OVERDUE
+    @Column(name = "updated_at", insertable = false, updatable = false, columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime updatedAt;
+
     public String generatedCustomId() {
         if (this.getYear() == null || this.getSequenceSuffix() == null) {
             throw new IllegalStateException("Year and sequenceSuffix must be set before generating ID");
@@ -0,0 +1,31 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+// Agrégat tenu à jour de façon incrémentale par ContributionService / PaymentService (voir StatsService)
+@Entity
+@Table(name = "contribution_stats")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContributionStat {
+
+    @EmbeddedId
+    private ContributionStatId id;
+
+    @Column(name = "contribution_count", nullable = false)
+    private long contributionCount;
+
+    @Column(name = "billed_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal billedTotal;
+
+    @Column(name = "collected_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal collectedTotal;
+}
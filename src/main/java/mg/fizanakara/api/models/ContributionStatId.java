@@ -0,0 +1,37 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.io.Serializable;
+
+// Clé de l'agrégat : (année, district, tribu, statut)
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class ContributionStatId implements Serializable {
+
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    @Column(name = "district_id", nullable = false)
+    private Long districtId;
+
+    @Column(name = "tribute_id", nullable = false)
+    private Long tributeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ContributionStatus status;
+}
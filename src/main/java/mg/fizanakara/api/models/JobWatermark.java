@@ -0,0 +1,31 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Point de reprise d'un traitement planifié incrémental (ex. promotion : borne de birth_date déjà traitée)
+@Entity
+@Table(name = "job_watermarks")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class JobWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // Borne exclusive déjà couverte (null : jamais exécuté)
+    @Column(name = "watermark")
+    private LocalDate watermark;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Effectifs par (année, district, tribu), tenus à jour par les triggers de persons (voir MemberStatsInitializer).
+// Chaque ligne porte la variation de l'année : l'effectif d'une année = cumul des variations jusqu'à elle incluse,
+// les années passées restent donc figées à leur état de fin d'année.
+@Entity
+@Table(name = "member_stats")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberStat {
+
+    @EmbeddedId
+    private MemberStatId id;
+
+    @Column(name = "member_delta", nullable = false)
+    private long memberDelta;
+
+    @Column(name = "active_delta", nullable = false)
+    private long activeDelta;
+}
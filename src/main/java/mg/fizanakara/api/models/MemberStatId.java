@@ -0,0 +1,30 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+// Clé de l'agrégat d'effectifs : (année, district, tribu)
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class MemberStatId implements Serializable {
+
+    @Column(name = "year", nullable = false)
+    private Integer year;
+
+    @Column(name = "district_id", nullable = false)
+    private Long districtId;
+
+    @Column(name = "tribute_id", nullable = false)
+    private Long tributeId;
+}
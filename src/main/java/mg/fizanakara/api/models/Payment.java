@@ -7,16 +7,17 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import mg.fizanakara.api.components.TimeOrderedIdGenerator;
 import mg.fizanakara.api.models.enums.PaymentStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 @Entity
 @Table(name = "payments", indexes = {
         @Index(name = "idx_payments_contribution", columnList = "contribution_id"),
-        @Index(name = "idx_payments_date", columnList = "payment_date")
+        @Index(name = "idx_payments_date", columnList = "payment_date"),
+        @Index(name = "uk_payments_idempotency_key", columnList = "idempotency_key", unique = true)
 })
 @Getter
 @Setter
@@ -46,9 +47,22 @@ public class Payment {
     @JoinColumn(name = "contribution_id", nullable = false)
     @NotNull(message = "Contribution is required")
     private Contribution contribution;
-    
+
+    // Clé fournie par le client (en-tête Idempotency-Key) : un renvoi de la même requête retrouve ce paiement
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Verrouillage optimiste (les INSERT JDBC du lot de paiements reçoivent le défaut 0)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Posé par le trigger touch_updated_at (ChangeTrackingInitializer)
+    @Column(name = "updated_at", insertable = false, updatable = false, columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime updatedAt;
+
+    // Horodatage de création (pas paymentDate, qui peut être antidatée) + suffixe unique : plus de collision à la seconde
     public String generatedCustomId() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
-        return "PAY" + this.getPaymentDate().format(formatter);
+        return TimeOrderedIdGenerator.next("PAY");
     }
 }
\ No newline at end of file
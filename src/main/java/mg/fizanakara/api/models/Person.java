@@ -13,6 +13,7 @@ import mg.fizanakara.api.models.enums.Gender;
 import mg.fizanakara.api.models.enums.MemberStatus;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Year;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,7 +22,9 @@ import java.util.List;
 @Table(name = "persons", indexes = {
         @Index(name = "idx_persons_parent_id", columnList = "parent_id"),
         @Index(name = "idx_persons_district_id", columnList = "district_id"),
-        @Index(name = "idx_persons_tribute_id", columnList = "tribute_id")
+        @Index(name = "idx_persons_tribute_id", columnList = "tribute_id"),
+        @Index(name = "idx_persons_active_birth", columnList = "is_active_member, birth_date"),  // Promotion incrémentale
+        @Index(name = "idx_persons_birth_date", columnList = "birth_date")  // Éligibilité (plages, génération annuelle)
 })
 @Getter
 @Setter  // ← AJOUT EXPLICITE : Génère tous setters (y compris setIsActiveMember)
@@ -60,6 +63,15 @@ public class Person extends Users {  // Hérite profil commun (nom, birthDate, g
     @Column(name = "is_active_member", nullable = false)
     private boolean isActiveMember = false;  // Devient true à 18 ans (promotion) – SETTER GÉNÉRÉ PAR @Setter
 
+    // Verrouillage optimiste (les INSERT JDBC / import reçoivent le défaut 0)
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Horodatage de modification : posé par le trigger touch_updated_at (ChangeTrackingInitializer), y compris pour les écritures SQL
+    @Column(name = "updated_at", insertable = false, updatable = false, columnDefinition = "timestamp default current_timestamp")
+    private LocalDateTime updatedAt;
+
     @Override
     public String generatedCustomId() {
         return "MBR" + String.format("%08d", this.getSequenceNumber());  // Prefix "PRS" pour Person
@@ -67,15 +79,18 @@ public class Person extends Users {  // Hérite profil commun (nom, birthDate, g
 
     // Utilitaire : Éligibilité cotisation (basé sur âge)
     public boolean isEligibleForContribution(Year year) {
-        int age = calculateAgeAtYear(this.getBirthDate(), year);
-        return age >= 18;
+        return isEligibleAtYear(this.getBirthDate(), year);
+    }
+
+    // Règle unique (entité, services, import) : 18 ans atteints au 31/12 de l'année
+    public static boolean isEligibleAtYear(LocalDate birthDate, Year year) {
+        return calculateAgeAtYear(birthDate, year) >= 18;
     }
 
-    // Calcul âge fin d'année (copié de tes services)
-    public int calculateAgeAtYear(LocalDate birthDate, Year year) {
+    // Calcul âge fin d'année
+    public static int calculateAgeAtYear(LocalDate birthDate, Year year) {
         LocalDate endOfYear = LocalDate.of(year.getValue(), 12, 31);
-        return endOfYear.getYear() - birthDate.getYear() -
-                (endOfYear.isBefore(birthDate.withDayOfYear(birthDate.getDayOfYear())) ? 1 : 0);
+        return endOfYear.getYear() - birthDate.getYear() - (endOfYear.isBefore(birthDate) ? 1 : 0);
     }
 
     public void setIsActiveMember(boolean isActiveMember) {
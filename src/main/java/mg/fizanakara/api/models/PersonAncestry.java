@@ -0,0 +1,41 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Table de fermeture de la hiérarchie parent_id : une ligne par couple (ancêtre, descendant), y compris (p, p, 0).
+// Tenue à jour par PersonService.createPerson / ImportService ; les suppressions cascadent en base (ON DELETE CASCADE).
+@Entity
+@Table(name = "person_ancestry", indexes = {
+        @Index(name = "idx_person_ancestry_descendant", columnList = "descendant_id, depth")
+})
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PersonAncestry {
+
+    @EmbeddedId
+    private PersonAncestryId id;
+
+    @MapsId("ancestorId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ancestor_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Person ancestor;
+
+    @MapsId("descendantId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "descendant_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Person descendant;
+
+    // Nombre de générations entre les deux (0 : la personne elle-même)
+    @Column(nullable = false)
+    private int depth;
+}
@@ -0,0 +1,27 @@
+package mg.fizanakara.api.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+// Clé de la table de fermeture : (ancêtre, descendant)
+@Embeddable
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+public class PersonAncestryId implements Serializable {
+
+    @Column(name = "ancestor_id", length = 11, nullable = false)
+    private String ancestorId;
+
+    @Column(name = "descendant_id", length = 11, nullable = false)
+    private String descendantId;
+}
@@ -1,11 +1,15 @@
 package mg.fizanakara.api.repository;
 
+import mg.fizanakara.api.dto.admins.AdminTokenVersionDto;
 import mg.fizanakara.api.models.Admins;
 import mg.fizanakara.api.models.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +18,11 @@ public interface AdminsRepository extends JpaRepository<Admins, String> {
     Optional<Admins> findByEmail(String email);
 
     Collection<Object> findByRole(Role role);
+
+    // Versions de jetons (registre de révocation, rechargé périodiquement)
+    @Query("SELECT new mg.fizanakara.api.dto.admins.AdminTokenVersionDto(a.email, a.tokenVersion) FROM Admins a")
+    List<AdminTokenVersionDto> findAllTokenVersions();
+
+    @Query("SELECT a.tokenVersion FROM Admins a WHERE a.email = :email")
+    Optional<Integer> findTokenVersionByEmail(@Param("email") String email);
 }
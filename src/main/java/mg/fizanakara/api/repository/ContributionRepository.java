@@ -1,17 +1,29 @@
 package mg.fizanakara.api.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import mg.fizanakara.api.dto.contributions.ContributionRow;
+import mg.fizanakara.api.dto.exports.ContributionExportRow;
 import mg.fizanakara.api.models.Contribution;
 import mg.fizanakara.api.models.enums.ContributionStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.Year;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ContributionRepository extends JpaRepository<Contribution, String> {
+public interface ContributionRepository extends JpaRepository<Contribution, String>, ContributionRepositoryCustom {
 
     // Cotisations par personne et année (nommage standard pour member.id)
     List<Contribution> findByMemberIdAndYear(String memberId, Year year);  // ← FIX : Renommé de findByPersonIdAndYear (JPA auto-génère query sur member.id)
@@ -22,11 +34,80 @@ public interface ContributionRepository extends JpaRepository<Contribution, Stri
     // Cotisations par personne
     List<Contribution> findByMemberId(String memberId);  // ← FIX : memberId
 
+    // Check doublon : une requête par forme (plus de "(:childId IS NULL OR ...)", qui empêchait un plan générique indexé)
+    @Query("SELECT COUNT(c) > 0 FROM Contribution c WHERE c.member.id = :memberId AND c.year = :year")
+    boolean hasDuplicateByMemberAndYear(@Param("memberId") String memberId, @Param("year") Year year);
+
+    @Query("SELECT COUNT(c) > 0 FROM Contribution c WHERE c.member.id = :memberId AND c.year = :year AND c.childId = :childId")
+    boolean hasDuplicateByMemberYearAndChild(@Param("memberId") String memberId, @Param("year") Year year, @Param("childId") String childId);
+
     // ← MODIF : Check doublon inclut childId (null pour adultes)
-    @Query("SELECT COUNT(c) > 0 FROM Contribution c WHERE c.member.id = :memberId AND c.year = :year AND (:childId IS NULL OR c.childId = :childId)")
-    boolean hasDuplicateByMemberAndYear(@Param("memberId") String memberId, @Param("year") Year year, @Param("childId") String childId);
+    default boolean hasDuplicateByMemberAndYear(String memberId, Year year, String childId) {
+        return childId == null ? hasDuplicateByMemberAndYear(memberId, year) : hasDuplicateByMemberYearAndChild(memberId, year, childId);
+    }
+
+    // Membres déjà facturés pour une année (1 requête pour toute la génération)
+    @Query("SELECT c.member.id FROM Contribution c WHERE c.year = :year")
+    List<String> findBilledMemberIdsByYear(@Param("year") Year year);
+
+    // Membres ayant au moins une cotisation (suppression en masse : FK contributions.member_id)
+    @Query("SELECT DISTINCT c.member.id FROM Contribution c WHERE c.member.id IN :memberIds")
+    List<String> findMemberIdsWithContributions(@Param("memberIds") Collection<String> memberIds);
+
+    // EXPORT EN FLUX : curseur JDBC (fetchSize), projection en lecture seule ; à consommer dans une transaction.
+    // Une requête par forme de filtre (pas de "(:x IS NULL OR ...)") : l'export d'une année parcourt idx_contributions_year_id
+    String EXPORT_ROW_SELECT = "SELECT new mg.fizanakara.api.dto.exports.ContributionExportRow(c.id, c.year, m.id, m.firstName, " +
+            "m.lastName, d.name, t.name, c.amount, c.paidTotal, c.amount - c.paidTotal, c.status, c.dueDate) " +
+            "FROM Contribution c JOIN c.member m JOIN m.district d JOIN m.tribute t ";
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(EXPORT_ROW_SELECT + "ORDER BY c.year, c.id")
+    Stream<ContributionExportRow> streamAllExportRows();
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(EXPORT_ROW_SELECT + "WHERE c.year = :year ORDER BY c.year, c.id")
+    Stream<ContributionExportRow> streamExportRowsByYear(@Param("year") Year year);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(EXPORT_ROW_SELECT + "WHERE c.status = :status ORDER BY c.year, c.id")
+    Stream<ContributionExportRow> streamExportRowsByStatus(@Param("status") ContributionStatus status);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(EXPORT_ROW_SELECT + "WHERE c.year = :year AND c.status = :status ORDER BY c.year, c.id")
+    Stream<ContributionExportRow> streamExportRowsByYearAndStatus(@Param("year") Year year, @Param("status") ContributionStatus status);
+
+    default Stream<ContributionExportRow> streamExportRows(Year year, ContributionStatus status) {
+        if (year == null) return status == null ? streamAllExportRows() : streamExportRowsByStatus(status);
+        return status == null ? streamExportRowsByYear(year) : streamExportRowsByYearAndStatus(year, status);
+    }
+
+    // Verrou ligne (SELECT ... FOR UPDATE) : sérialise les écritures de paiement d'une même cotisation
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Contribution c WHERE c.id = :id")
+    Optional<Contribution> findByIdForUpdate(@Param("id") String id);
+
+    // SOLDE MATÉRIALISÉ : incrément atomique dans la transaction du paiement (la ligne reste verrouillée jusqu'au commit).
+    // Le contexte de persistance est vidé pour que la relecture de la cotisation voie le nouveau solde.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE contributions SET paid_total = paid_total + :amount, payment_count = payment_count + :count WHERE id = :id", nativeQuery = true)
+    int applyPaymentDelta(@Param("id") String id, @Param("amount") BigDecimal amount, @Param("count") int count);
+
+    // Projections plates (1 requête avec jointure sur member, pas de N+1)
+    String CONTRIBUTION_ROW_SELECT = "SELECT new mg.fizanakara.api.dto.contributions.ContributionRow(" +
+            "c.id, c.year, c.amount, c.status, c.dueDate, m.id, m.firstName, m.lastName, c.childId, c.paidTotal) " +
+            "FROM Contribution c JOIN c.member m ";
+
+    @Query(CONTRIBUTION_ROW_SELECT + "ORDER BY c.year, c.id")
+    List<ContributionRow> findAllRows();
+
+    @Query(CONTRIBUTION_ROW_SELECT + "WHERE m.id = :memberId AND c.year = :year ORDER BY c.id")
+    List<ContributionRow> findRowsByMemberIdAndYear(@Param("memberId") String memberId, @Param("year") Year year);
+
+    @Query(CONTRIBUTION_ROW_SELECT + "WHERE c.id IN :ids ORDER BY c.year, c.id")
+    List<ContributionRow> findRowsByIds(@Param("ids") Collection<String> ids);
 
-    // Cotisations en retard
-    @Query("SELECT c FROM Contribution c WHERE c.dueDate < CURRENT_DATE AND c.status != 'PAID'")
-    List<Contribution> findOverdueContributions();
+    // Top impayés d'une année : parcours ordonné de idx_contributions_year_outstanding (index partiel sur le reste à payer),
+    // arrêté après :limit lignes
+    @Query(CONTRIBUTION_ROW_SELECT + "WHERE c.year = :year AND c.paidTotal < c.amount ORDER BY c.amount - c.paidTotal DESC, c.id")
+    List<ContributionRow> findTopOutstandingRows(@Param("year") Year year, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package mg.fizanakara.api.repository;
+
+import mg.fizanakara.api.dto.contributions.ContributionRow;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.time.Year;
+import java.util.List;
+
+// Requêtes à forme variable (seuls les filtres fournis figurent dans le SQL), implémentées par ContributionRepositoryImpl
+public interface ContributionRepositoryCustom {
+
+    // Pagination keyset sur (year, id) ; afterYear/afterId null = première page
+    List<ContributionRow> findRowsPage(ContributionStatus status, Year year, Long districtId, Long tributeId,
+                                       Year afterYear, String afterId, int limit);
+}
@@ -0,0 +1,60 @@
+package mg.fizanakara.api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import mg.fizanakara.api.dto.contributions.ContributionRow;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Une requête par combinaison de filtres (plus de "(:x IS NULL OR ...)") : chaque forme a son plan,
+// et un filtre sur l'année réduit le curseur à "c.id > :afterId", parcours direct de idx_contributions_year_id
+class ContributionRepositoryImpl implements ContributionRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ContributionRow> findRowsPage(ContributionStatus status, Year year, Long districtId, Long tributeId,
+                                              Year afterYear, String afterId, int limit) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (status != null) {
+            predicates.add("c.status = :status");
+            parameters.put("status", status);
+        }
+        if (year != null) {
+            predicates.add("c.year = :year");
+            parameters.put("year", year);
+        }
+        if (districtId != null) {
+            predicates.add("m.district.id = :districtId");
+            parameters.put("districtId", districtId);
+        }
+        if (tributeId != null) {
+            predicates.add("m.tribute.id = :tributeId");
+            parameters.put("tributeId", tributeId);
+        }
+        if (afterId != null) {
+            if (year != null && year.equals(afterYear)) {
+                predicates.add("c.id > :afterId");
+            } else {
+                predicates.add("(c.year, c.id) > (:afterYear, :afterId)");
+                parameters.put("afterYear", afterYear);
+            }
+            parameters.put("afterId", afterId);
+        }
+
+        String jpql = ContributionRepository.CONTRIBUTION_ROW_SELECT +
+                (predicates.isEmpty() ? "" : "WHERE " + String.join(" AND ", predicates) + " ") +
+                "ORDER BY c.year, c.id";
+        TypedQuery<ContributionRow> query = entityManager.createQuery(jpql, ContributionRow.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,60 @@
+package mg.fizanakara.api.repository;
+
+import mg.fizanakara.api.dto.stats.ContributionStatRow;
+import mg.fizanakara.api.models.ContributionStat;
+import mg.fizanakara.api.models.ContributionStatId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ContributionStatRepository extends JpaRepository<ContributionStat, ContributionStatId> {
+
+    @Query("SELECT new mg.fizanakara.api.dto.stats.ContributionStatRow(s.id.year, s.id.districtId, d.name, s.id.tributeId, t.name, " +
+            "s.id.status, s.contributionCount, s.billedTotal, s.collectedTotal) " +
+            "FROM ContributionStat s LEFT JOIN District d ON d.id = s.id.districtId LEFT JOIN Tribute t ON t.id = s.id.tributeId " +
+            "WHERE (:year IS NULL OR s.id.year = :year) AND s.contributionCount > 0 " +
+            "ORDER BY s.id.year DESC, d.name, t.name")
+    List<ContributionStatRow> findRows(@Param("year") Integer year);
+
+    // Delta atomique : la ligne est créée au premier passage puis incrémentée (aucune lecture préalable)
+    @Modifying
+    @Query(value = "INSERT INTO contribution_stats (year, district_id, tribute_id, status, contribution_count, billed_total, collected_total) " +
+            "VALUES (:year, :districtId, :tributeId, :status, :count, :billed, :collected) " +
+            "ON CONFLICT (year, district_id, tribute_id, status) DO UPDATE SET " +
+            "contribution_count = contribution_stats.contribution_count + EXCLUDED.contribution_count, " +
+            "billed_total = contribution_stats.billed_total + EXCLUDED.billed_total, " +
+            "collected_total = contribution_stats.collected_total + EXCLUDED.collected_total", nativeQuery = true)
+    void applyDelta(@Param("year") int year, @Param("districtId") Long districtId, @Param("tributeId") Long tributeId,
+                    @Param("status") String status, @Param("count") long count,
+                    @Param("billed") BigDecimal billed, @Param("collected") BigDecimal collected);
+
+    // Part des agrégats portée par un ensemble de membres : [year, district_id, tribute_id, status, count, billed, collected]
+    @Query(value = "SELECT c.year, p.district_id, p.tribute_id, c.status, COUNT(*), SUM(c.amount), SUM(c.paid_total) " +
+            "FROM contributions c JOIN persons p ON p.id = c.member_id " +
+            "WHERE c.member_id IN (:memberIds) " +
+            "GROUP BY c.year, p.district_id, p.tribute_id, c.status", nativeQuery = true)
+    List<Object[]> aggregateByMembers(@Param("memberIds") Collection<String> memberIds);
+
+    // Reconstruction complète depuis les tables sources (corrige une éventuelle dérive, ex. changement de district)
+    @Modifying
+    @Query(value = "LOCK TABLE contribution_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM contribution_stats", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO contribution_stats (year, district_id, tribute_id, status, contribution_count, billed_total, collected_total) " +
+            "SELECT c.year, p.district_id, p.tribute_id, c.status, COUNT(*), SUM(c.amount), SUM(c.paid_total) " +
+            "FROM contributions c JOIN persons p ON p.id = c.member_id " +
+            "GROUP BY c.year, p.district_id, p.tribute_id, c.status", nativeQuery = true)
+    int insertFromSource();
+}
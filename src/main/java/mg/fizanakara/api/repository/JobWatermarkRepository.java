@@ -0,0 +1,26 @@
+package mg.fizanakara.api.repository;
+
+import jakarta.persistence.LockModeType;
+import mg.fizanakara.api.models.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+
+    // Création idempotente (deux réplicas au premier démarrage ne se heurtent pas sur la clé)
+    @Modifying
+    @Query(value = "INSERT INTO job_watermarks (name) VALUES (:name) ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    void ensureExists(@Param("name") String name);
+
+    // Verrou de ligne : une seule exécution du traitement à la fois, toutes réplicas confondues
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.name = :name")
+    Optional<JobWatermark> findByNameForUpdate(@Param("name") String name);
+}
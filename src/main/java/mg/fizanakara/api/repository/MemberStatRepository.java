@@ -0,0 +1,50 @@
+package mg.fizanakara.api.repository;
+
+import mg.fizanakara.api.dto.stats.MemberStatRow;
+import mg.fizanakara.api.models.MemberStat;
+import mg.fizanakara.api.models.MemberStatId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MemberStatRepository extends JpaRepository<MemberStat, MemberStatId> {
+
+    // Variations jusqu'à une année incluse (quelques lignes par groupe et par année : le cumul se fait en mémoire)
+    @Query("SELECT new mg.fizanakara.api.dto.stats.MemberStatRow(s.id.year, s.id.districtId, d.name, s.id.tributeId, t.name, " +
+            "s.memberDelta, s.activeDelta) " +
+            "FROM MemberStat s LEFT JOIN District d ON d.id = s.id.districtId LEFT JOIN Tribute t ON t.id = s.id.tributeId " +
+            "WHERE s.id.year <= :maxYear ORDER BY s.id.year")
+    List<MemberStatRow> findRowsUpTo(@Param("maxYear") int maxYear);
+
+    @Modifying
+    @Query(value = "LOCK TABLE member_stats IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    // Amorçage : chaque personne compte à partir de son année d'inscription (historique des départs inconnu)
+    @Modifying
+    @Query(value = "INSERT INTO member_stats (year, district_id, tribute_id, member_delta, active_delta) " +
+            "SELECT CAST(EXTRACT(YEAR FROM created_at) AS int), district_id, tribute_id, COUNT(*), COUNT(*) FILTER (WHERE is_active_member) " +
+            "FROM persons GROUP BY 1, 2, 3", nativeQuery = true)
+    int insertFromSource();
+
+    // Correction de dérive : l'écart entre persons et le cumul de toutes les années est porté sur l'année courante
+    // (les années passées ne sont pas réécrites)
+    @Modifying
+    @Query(value = "INSERT INTO member_stats AS s (year, district_id, tribute_id, member_delta, active_delta) " +
+            "SELECT :year, district_id, tribute_id, COALESCE(p.members, 0) - COALESCE(a.members, 0), " +
+            "COALESCE(p.active, 0) - COALESCE(a.active, 0) " +
+            "FROM (SELECT district_id, tribute_id, COUNT(*) AS members, COUNT(*) FILTER (WHERE is_active_member) AS active " +
+            "      FROM persons GROUP BY district_id, tribute_id) p " +
+            "FULL JOIN (SELECT district_id, tribute_id, SUM(member_delta) AS members, SUM(active_delta) AS active " +
+            "      FROM member_stats GROUP BY district_id, tribute_id) a USING (district_id, tribute_id) " +
+            "WHERE COALESCE(p.members, 0) <> COALESCE(a.members, 0) OR COALESCE(p.active, 0) <> COALESCE(a.active, 0) " +
+            "ON CONFLICT (year, district_id, tribute_id) DO UPDATE SET " +
+            "member_delta = s.member_delta + EXCLUDED.member_delta, active_delta = s.active_delta + EXCLUDED.active_delta",
+            nativeQuery = true)
+    int insertDrift(@Param("year") int year);
+}
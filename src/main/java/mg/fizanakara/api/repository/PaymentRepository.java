@@ -1,17 +1,62 @@
 package mg.fizanakara.api.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import mg.fizanakara.api.dto.exports.PaymentExportRow;
+import mg.fizanakara.api.dto.payments.PaymentRow;
 import mg.fizanakara.api.models.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Year;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, String> {
     List<Payment> findByContributionId(String contributionId);
-    @Query(value = "SELECT SUM(p.amount_paid) FROM payments p WHERE p.contribution_id = :contributionId", nativeQuery = true)
-    BigDecimal getTotalPaidByContributionId(@Param("contributionId") String contributionId);
+
+    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+
+    // Cotisation d'un paiement sans charger l'entité (pour verrouiller la cotisation avant de relire le paiement)
+    @Query("SELECT p.contribution.id FROM Payment p WHERE p.id = :id")
+    Optional<String> findContributionIdById(@Param("id") String id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") String id);
+
+    // Lignes de paiement pour un lot de cotisations (1 requête IN, totaux calculés en mémoire)
+    @Query("SELECT new mg.fizanakara.api.dto.payments.PaymentRow(p.id, p.contribution.id, p.amountPaid, p.paymentDate, p.status) " +
+            "FROM Payment p WHERE p.contribution.id IN :contributionIds ORDER BY p.paymentDate, p.id")
+    List<PaymentRow> findRowsByContributionIds(@Param("contributionIds") Collection<String> contributionIds);
+
+    @Query("SELECT new mg.fizanakara.api.dto.payments.PaymentRow(p.id, p.contribution.id, p.amountPaid, p.paymentDate, p.status) " +
+            "FROM Payment p ORDER BY p.paymentDate, p.id")
+    List<PaymentRow> findAllRows();
+
+    // EXPORT EN FLUX : curseur JDBC (fetchSize), projection en lecture seule ; à consommer dans une transaction
+    // (une requête par forme de filtre : pas de "(:year IS NULL OR ...)")
+    String EXPORT_ROW_SELECT = "SELECT new mg.fizanakara.api.dto.exports.PaymentExportRow(p.id, c.id, c.year, m.id, m.firstName, " +
+            "m.lastName, p.amountPaid, p.paymentDate, p.status) " +
+            "FROM Payment p JOIN p.contribution c JOIN c.member m ";
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(EXPORT_ROW_SELECT + "ORDER BY p.paymentDate, p.id")
+    Stream<PaymentExportRow> streamAllExportRows();
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(EXPORT_ROW_SELECT + "WHERE c.year = :year ORDER BY p.paymentDate, p.id")
+    Stream<PaymentExportRow> streamExportRowsByYear(@Param("year") Year year);
+
+    default Stream<PaymentExportRow> streamExportRows(Year year) {
+        return year == null ? streamAllExportRows() : streamExportRowsByYear(year);
+    }
 }
@@ -0,0 +1,46 @@
+package mg.fizanakara.api.repository;
+
+import mg.fizanakara.api.models.PersonAncestry;
+import mg.fizanakara.api.models.PersonAncestryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PersonAncestryRepository extends JpaRepository<PersonAncestry, PersonAncestryId> {
+
+    // Nouvelle feuille : ligne (p, p, 0) + une ligne par ancêtre du parent (parentId null : ligne réflexive seule).
+    // flushAutomatically : la personne sauvegardée via JPA doit exister avant l'insertion (clés étrangères).
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO person_ancestry (ancestor_id, descendant_id, depth) " +
+            "SELECT :personId, :personId, 0 " +
+            "UNION ALL " +
+            "SELECT ancestor_id, :personId, depth + 1 FROM person_ancestry WHERE descendant_id = :parentId", nativeQuery = true)
+    int insertPath(@Param("personId") String personId, @Param("parentId") String parentId);
+
+    // Taille du sous-arbre (hors la personne elle-même) : 1 parcours d'index sur la clé primaire
+    @Query(value = "SELECT COUNT(*) - 1 FROM person_ancestry WHERE ancestor_id = :personId", nativeQuery = true)
+    long countDescendants(@Param("personId") String personId);
+
+    // Contrôle d'intégrité : personnes sans ligne réflexive (base existante, insertion hors service)
+    @Query(value = "SELECT COUNT(*) FROM persons p WHERE NOT EXISTS " +
+            "(SELECT 1 FROM person_ancestry a WHERE a.ancestor_id = p.id AND a.descendant_id = p.id)", nativeQuery = true)
+    long countPersonsWithoutPath();
+
+    // RECONSTRUCTION complète depuis parent_id (profondeur bornée : garde-fou contre un cycle corrompu)
+    @Modifying
+    @Query(value = "DELETE FROM person_ancestry", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO person_ancestry (ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE closure AS (" +
+            "  SELECT id AS ancestor_id, id AS descendant_id, 0 AS depth FROM persons " +
+            "  UNION ALL " +
+            "  SELECT c.ancestor_id, p.id, c.depth + 1 FROM closure c JOIN persons p ON p.parent_id = c.descendant_id " +
+            "  WHERE c.depth < 100" +
+            ") SELECT ancestor_id, descendant_id, MIN(depth) FROM closure GROUP BY ancestor_id, descendant_id", nativeQuery = true)
+    int insertFromPersons();
+}
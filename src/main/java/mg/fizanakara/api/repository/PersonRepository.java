@@ -1,19 +1,24 @@
 package mg.fizanakara.api.repository;
 
+import mg.fizanakara.api.dto.person.EligiblePersonRow;
 import mg.fizanakara.api.models.Person;
 import mg.fizanakara.api.models.enums.MemberStatus;
+import mg.fizanakara.api.models.District;
+import mg.fizanakara.api.models.Tribute;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.Year;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PersonRepository extends JpaRepository<Person, String> {
+public interface PersonRepository extends JpaRepository<Person, String>, PersonRepositoryCustom {
 
     // Queries dérivées (comme avant pour phone/nom)
     Optional<Person> findByPhoneNumber(String phoneNumber);
@@ -31,9 +36,31 @@ public interface PersonRepository extends JpaRepository<Person, String> {
                                     @Param("status") MemberStatus status,
                                     @Param("currentId") String currentId);
 
-    // Éligibles pour cotisations (>=18 ans, fusion Members/Children)
-    @Query("SELECT p FROM Person p WHERE :yearValue - YEAR(p.birthDate) >= 18 OR (:yearValue = YEAR(p.birthDate) AND MONTH(p.birthDate) < 12 AND DAY(p.birthDate) <= 31)")
-    List<Person> findEligiblePersonsForContribution(@Param("yearValue") int yearValue);
+    // Éligibles pour cotisations (>=18 ans, fusion Members/Children) : mêmes lignes que l'ancien filtre YEAR()/MONTH(),
+    // exprimées en plages sur birth_date (idx_persons_birth_date, BitmapOr) :
+    //   année - YEAR(b) >= 18                 ⇔  b < 1er janvier (année - 17)
+    //   YEAR(b) = année AND MONTH(b) < 12     ⇔  1er janvier (année) <= b < 1er décembre (année)
+    String ELIGIBLE_BIRTH_RANGES = "p.birthDate < :adultBornBefore OR (p.birthDate >= :yearStart AND p.birthDate < :decemberStart)";
+
+    @Query("SELECT p FROM Person p WHERE " + ELIGIBLE_BIRTH_RANGES)
+    List<Person> findEligiblePersonsBornIn(@Param("adultBornBefore") LocalDate adultBornBefore,
+                                           @Param("yearStart") LocalDate yearStart,
+                                           @Param("decemberStart") LocalDate decemberStart);
+
+    default List<Person> findEligiblePersonsForContribution(int yearValue) {
+        return findEligiblePersonsBornIn(LocalDate.of(yearValue - 17, 1, 1), LocalDate.of(yearValue, 1, 1), LocalDate.of(yearValue, 12, 1));
+    }
+
+    // Même critère, en projection (génération en masse)
+    @Query("SELECT new mg.fizanakara.api.dto.person.EligiblePersonRow(p.id, p.firstName, p.lastName, p.birthDate, p.status, p.isActiveMember, p.district.id, p.tribute.id) " +
+            "FROM Person p WHERE " + ELIGIBLE_BIRTH_RANGES)
+    List<EligiblePersonRow> findEligiblePersonRowsBornIn(@Param("adultBornBefore") LocalDate adultBornBefore,
+                                                         @Param("yearStart") LocalDate yearStart,
+                                                         @Param("decemberStart") LocalDate decemberStart);
+
+    default List<EligiblePersonRow> findEligiblePersonRowsForContribution(int yearValue) {
+        return findEligiblePersonRowsBornIn(LocalDate.of(yearValue - 17, 1, 1), LocalDate.of(yearValue, 1, 1), LocalDate.of(yearValue, 12, 1));
+    }
 
     // Filters (fusionnés)
     @Query("SELECT p FROM Person p WHERE p.district.id = :districtId")
@@ -47,12 +74,53 @@ public interface PersonRepository extends JpaRepository<Person, String> {
     // Nouvelles queries pour hiérarchie (self-reference)
     List<Person> findByParentId(String parentId);  // Enfants directs d'un parent
 
-    // Arbre familial récursif (native pour PostgreSQL)
-    @Query(value = "WITH RECURSIVE family_tree AS (" +
-            "  SELECT id, parent_id, first_name, last_name, birth_date, status, is_active_member FROM persons WHERE id = :rootId " +
-            "  UNION ALL " +
-            "  SELECT p.id, p.parent_id, p.first_name, p.last_name, p.birth_date, p.status, p.is_active_member FROM persons p " +
-            "  INNER JOIN family_tree ft ON p.parent_id = ft.id " +
-            ") SELECT id, parent_id, first_name, last_name, birth_date, status, is_active_member FROM family_tree", nativeQuery = true)
-    List<Object[]> getFamilyTree(@Param("rootId") String rootId);  // Array pour mapping custom
+    // Champs de la clé de doublon (hasDuplicateByKeyFields) pour tout le registre : préchargés une fois par import
+    @Query("SELECT p.firstName, p.lastName, p.birthDate, p.phoneNumber, p.district.id, p.tribute.id, p.status FROM Person p")
+    List<Object[]> findAllDuplicateKeyFields();
+
+    // OPÉRATIONS EN MASSE (1 requête ensembliste par lot d'IDs, pas de findById par membre)
+    @Query("SELECT p.id FROM Person p WHERE p.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+
+    @Query("SELECT p.id, p.parent.id FROM Person p WHERE p.parent.id IN :ids")
+    List<Object[]> findChildLinks(@Param("ids") Collection<String> ids);  // [childId, parentId]
+
+    @Query("SELECT new mg.fizanakara.api.dto.person.EligiblePersonRow(p.id, p.firstName, p.lastName, p.birthDate, p.status, p.isActiveMember, p.district.id, p.tribute.id) " +
+            "FROM Person p WHERE p.id IN :ids")
+    List<EligiblePersonRow> findEligiblePersonRowsByIds(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("UPDATE Person p SET p.parent = NULL WHERE p.id IN :ids")
+    int detachFromParents(@Param("ids") Collection<String> ids);
+
+    @Modifying
+    @Query("DELETE FROM Person p WHERE p.id IN :ids")
+    int deleteAllByIds(@Param("ids") Collection<String> ids);
+
+    // Promotion incrémentale : plage sur birth_date (idx_persons_active_birth), pas de YEAR() sur la colonne.
+    // Une requête par forme (premier passage sans borne basse), comme hasDuplicateByMemberAndYear : pas de ":x IS NULL OR ..."
+    String INACTIVE_ROW_SELECT = "SELECT new mg.fizanakara.api.dto.person.EligiblePersonRow(p.id, p.firstName, p.lastName, p.birthDate, p.status, p.isActiveMember, p.district.id, p.tribute.id) " +
+            "FROM Person p WHERE p.isActiveMember = false AND p.birthDate < :bornBefore ";
+
+    @Query(INACTIVE_ROW_SELECT + "ORDER BY p.birthDate, p.id")
+    List<EligiblePersonRow> findInactiveRowsBornBefore(@Param("bornBefore") LocalDate bornBefore);
+
+    @Query(INACTIVE_ROW_SELECT + "AND p.birthDate >= :bornFrom ORDER BY p.birthDate, p.id")
+    List<EligiblePersonRow> findInactiveRowsBornFrom(@Param("bornFrom") LocalDate bornFrom, @Param("bornBefore") LocalDate bornBefore);
+
+    default List<EligiblePersonRow> findInactiveRowsBornBetween(LocalDate bornFrom, LocalDate bornBefore) {
+        return bornFrom == null ? findInactiveRowsBornBefore(bornBefore) : findInactiveRowsBornFrom(bornFrom, bornBefore);
+    }
+
+    @Modifying
+    @Query("UPDATE Person p SET p.isActiveMember = true, p.status = :status WHERE p.id IN :ids AND p.isActiveMember = false")
+    int promoteAll(@Param("ids") Collection<String> ids, @Param("status") MemberStatus status);
+
+    @Modifying
+    @Query("UPDATE Person p SET p.district = :district WHERE p.id IN :ids")
+    int moveAllToDistrict(@Param("ids") Collection<String> ids, @Param("district") District district);
+
+    @Modifying
+    @Query("UPDATE Person p SET p.tribute = :tribute WHERE p.id IN :ids")
+    int moveAllToTribute(@Param("ids") Collection<String> ids, @Param("tribute") Tribute tribute);
 }
\ No newline at end of file
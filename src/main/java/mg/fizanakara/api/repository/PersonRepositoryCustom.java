@@ -0,0 +1,17 @@
+package mg.fizanakara.api.repository;
+
+import mg.fizanakara.api.dto.person.PersonSummaryDto;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+
+// Requêtes à forme variable (seuls les filtres fournis figurent dans le SQL), implémentées par PersonRepositoryImpl
+public interface PersonRepositoryCustom {
+
+    // Liste paginée en projection plate ; chaque filtre null est absent de la requête
+    Page<PersonSummaryDto> findSummaries(MemberStatus status, Gender gender, Long districtId, Long tributeId, Boolean active,
+                                         LocalDate bornFrom, LocalDate bornBefore, Pageable pageable);
+}
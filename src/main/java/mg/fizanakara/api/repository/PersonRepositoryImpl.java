@@ -0,0 +1,85 @@
+package mg.fizanakara.api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import mg.fizanakara.api.dto.person.PersonSummaryDto;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Une requête par combinaison de filtres (plus de "(:x IS NULL OR ...)") : plan propre à chaque forme,
+// les plages de naissance restent indexables (idx_persons_birth_date)
+class PersonRepositoryImpl implements PersonRepositoryCustom {
+
+    // Projection plate : district/tribute/parent joints + COUNT des enfants (pas de N+1)
+    private static final String SUMMARY_SELECT = "SELECT new mg.fizanakara.api.dto.person.PersonSummaryDto(" +
+            "p.id, p.firstName, p.lastName, p.birthDate, p.gender, p.imageUrl, p.phoneNumber, p.createdAt, " +
+            "p.sequenceNumber, p.status, p.isActiveMember, d.id, d.name, t.id, t.name, pa.id, pa.firstName, pa.lastName, " +
+            "(SELECT COUNT(ch) FROM Person ch WHERE ch.parent.id = p.id)) " +
+            "FROM Person p JOIN p.district d JOIN p.tribute t LEFT JOIN p.parent pa ";
+    private static final String SUMMARY_COUNT = "SELECT COUNT(p) FROM Person p ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<PersonSummaryDto> findSummaries(MemberStatus status, Gender gender, Long districtId, Long tributeId,
+                                                Boolean active, LocalDate bornFrom, LocalDate bornBefore, Pageable pageable) {
+        List<String> predicates = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (status != null) {
+            predicates.add("p.status = :status");
+            parameters.put("status", status);
+        }
+        if (gender != null) {
+            predicates.add("p.gender = :gender");
+            parameters.put("gender", gender);
+        }
+        if (districtId != null) {
+            predicates.add("p.district.id = :districtId");
+            parameters.put("districtId", districtId);
+        }
+        if (tributeId != null) {
+            predicates.add("p.tribute.id = :tributeId");
+            parameters.put("tributeId", tributeId);
+        }
+        if (active != null) {
+            predicates.add("p.isActiveMember = :active");
+            parameters.put("active", active);
+        }
+        if (bornFrom != null) {
+            predicates.add("p.birthDate >= :bornFrom");
+            parameters.put("bornFrom", bornFrom);
+        }
+        if (bornBefore != null) {
+            predicates.add("p.birthDate < :bornBefore");
+            parameters.put("bornBefore", bornBefore);
+        }
+        String where = predicates.isEmpty() ? "" : "WHERE " + String.join(" AND ", predicates);
+
+        TypedQuery<PersonSummaryDto> query = entityManager.createQuery(
+                QueryUtils.applySorting(SUMMARY_SELECT + where, pageable.getSort(), "p"), PersonSummaryDto.class);
+        parameters.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<PersonSummaryDto> content = query.getResultList();
+
+        // district / tribute non nuls (FK obligatoires) : le COUNT se passe des jointures
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(SUMMARY_COUNT + where, Long.class);
+            parameters.forEach(count::setParameter);
+            return count.getSingleResult();
+        });
+    }
+}
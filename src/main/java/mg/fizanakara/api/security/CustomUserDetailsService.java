@@ -1,12 +1,20 @@
 package mg.fizanakara.api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import mg.fizanakara.api.models.Admins;
 import mg.fizanakara.api.models.enums.Role;  // ← AJOUT : Import enum Role pour mapping dynamique
 import mg.fizanakara.api.repository.AdminsRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -14,12 +22,44 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
     private final AdminsRepository adminsRepository;
 
-    public CustomUserDetailsService(AdminsRepository adminsRepository) {
+    // Cache des principaux (TTL court, taille bornée) : évite findByEmail à chaque requête authentifiée
+    private final Cache<String, UserDetails> principalCache;
+
+    public CustomUserDetailsService(AdminsRepository adminsRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                                    @Value("${app.security.principal-cache.max-size:1000}") long maxSize) {
         this.adminsRepository = adminsRepository;
+        this.principalCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "principals");
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        UserDetails cached = principalCache.get(email, this::loadFromDatabase);
+        // Copie : le ProviderManager efface le mot de passe de l'instance retournée après login
+        return User.withUserDetails(cached).build();
+    }
+
+    // Invalidation après commit (sinon une requête concurrente pourrait remettre l'ancienne version en cache)
+    public void evict(String email) {
+        if (email == null) return;
+        principalCache.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.invalidate(email);
+                }
+            });
+        }
+    }
+
+    private UserDetails loadFromDatabase(String email) {
         Admins admin = adminsRepository
                 .findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Admin not found " + email));
@@ -34,4 +74,4 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .authorities(authorities)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -7,7 +7,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull; // ✅ AJOUT
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -20,10 +22,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    public JwtAuthenticationFilter(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(CustomUserDetailsService userDetailsService, JwtUtil jwtUtil, TokenVersionRegistry tokenVersionRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
@@ -39,20 +43,38 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && jwtUtil.validateToken(token)) {
-            String subject = jwtUtil.getSubject(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
+        // Un seul parsing + vérification HMAC par requête (ou aucun si le jeton est déjà en cache)
+        VerifiedToken verified = token != null ? jwtUtil.verify(token) : null;
 
-            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (verified != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String subject = verified.subject();
+            UserDetails userDetails = resolvePrincipal(verified);
+
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
                 log.debug("Auth set pour user : {}", subject);
+            } else {
+                log.warn("Token révoqué pour {} : {}", request.getRequestURI(), subject);
             }
-        } else if (token != null) {
-            log.warn("Token invalide pour {} : {}", request.getRequestURI(), jwtUtil.getSubject(token));
+        } else if (token != null && verified == null) {
+            log.warn("Token invalide pour {}", request.getRequestURI());
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Mode sans état : rôles et version lus dans les claims signés, révocation vérifiée en mémoire (0 requête SQL).
+    // Anciens jetons sans claims (ou mode désactivé) : repli sur le UserDetailsService (cache).
+    private UserDetails resolvePrincipal(VerifiedToken verified) {
+        if (jwtUtil.isStateless() && verified.hasStatelessClaims()) {
+            if (!tokenVersionRegistry.isCurrent(verified.subject(), verified.version())) return null;
+            return User.withUsername(verified.subject())
+                    .password("")
+                    .authorities(verified.roles().stream().map(SimpleGrantedAuthority::new).toList())
+                    .build();
+        }
+        return userDetailsService.loadUserByUsername(verified.subject());
+    }
+}
@@ -1,7 +1,11 @@
 package mg.fizanakara.api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -10,6 +14,12 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -28,6 +38,51 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration}")
     private long refreshTokenExpirationMs;
 
+    // Mode sans état : le filtre construit l'Authentication depuis les claims signés (roles + ver)
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    // Construits une seule fois au démarrage (plus de Keys.hmacShaKeyFor / Jwts.parser() par appel)
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    public static final String ROLES_CLAIM = "roles";
+    public static final String VERSION_CLAIM = "ver";
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        // Chaque entrée expire avec son jeton
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     public String generateAccessToken(String subject) {
         try {
             Date now = new Date();
@@ -66,6 +121,24 @@ public class JwtUtil {
         }
     }
 
+    public String generateAccessToken(String subject, Collection<String> roles, int tokenVersion) {
+        try {
+            Date now = new Date();
+            Date expiry = new Date(now.getTime() + accessTokenExpirationMs);
+            return Jwts.builder()
+                    .subject(subject)
+                    .claim(ROLES_CLAIM, List.copyOf(roles))
+                    .claim(VERSION_CLAIM, tokenVersion)
+                    .issuedAt(now)
+                    .expiration(expiry)
+                    .signWith(getSigningKey(), Jwts.SIG.HS512)
+                    .compact();
+        } catch (Exception e) {
+            log.error("Échec génération access token pour {}", subject, e);
+            throw new RuntimeException("Échec lors de la génération de token", e);
+        }
+    }
+
     public String generateRefreshToken(String subject) {
         try {
             Date now = new Date();
@@ -82,49 +155,61 @@ public class JwtUtil {
         }
     }
 
-    public boolean validateToken(String token) {
+    // Vérifie une seule fois (clé + parser construits au démarrage) ; les jetons chauds sont servis
+    // depuis un cache borné indexé par empreinte SHA-256, jusqu'à leur expiration
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) return null;
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (!cached.isExpired()) return cached;
+            verifiedTokens.invalidate(digest);
+        }
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getSubject(),
+                    readRoles(claims),
+                    claims.get(VERSION_CLAIM, Integer.class),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+            if (verified.expiresAt() != null) verifiedTokens.put(digest, verified);
+            return verified;
         } catch (JwtException | IllegalArgumentException ex) {
             log.warn("Token invalide : {}", ex.getMessage());
-            return false;
+            return null;
         }
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public boolean validateToken(String token) {
+        return verify(token) != null;
     }
 
     public String getSubject(String token) {
-        try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (JwtException ex) {
-            log.warn("Erreur extraction subject du token : {}", ex.getMessage());
-            return null;
-        }
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.subject() : null;
     }
 
-    @SuppressWarnings("unchecked") // ✅ AJOUT : Pour supprimer l'alerte de cast
     public List<String> getRoles(String token) {
+        VerifiedToken verified = verify(token);
+        return verified != null ? verified.roles() : List.of();
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    private List<String> readRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> list)) return List.of();
+        return list.stream().map(Object::toString).collect(Collectors.toList());
+    }
+
+    private String digest(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            Object roles = claims.get("roles");
-            return roles instanceof List ? (List<String>) roles : List.of();
-        } catch (JwtException ex) {
-            return List.of();
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
         }
     }
-}
\ No newline at end of file
+}
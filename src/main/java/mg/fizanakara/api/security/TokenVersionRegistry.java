@@ -0,0 +1,74 @@
+package mg.fizanakara.api.security;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.admins.AdminTokenVersionDto;
+import mg.fizanakara.api.repository.AdminsRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Registre compact email -> version de jeton : la révocation se vérifie en mémoire, sans requête par appel.
+// Rechargé périodiquement pour propager les révocations faites sur les autres instances.
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+    private static final int REVOKED = -1;
+
+    private final AdminsRepository adminsRepository;
+    private volatile Map<String, Integer> versions = new ConcurrentHashMap<>();
+
+    public TokenVersionRegistry(AdminsRepository adminsRepository) {
+        this.adminsRepository = adminsRepository;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.security.token-version-refresh-ms:30000}",
+            initialDelayString = "${app.security.token-version-refresh-ms:30000}")
+    public void refresh() {
+        Map<String, Integer> loaded = new ConcurrentHashMap<>();
+        for (AdminTokenVersionDto row : adminsRepository.findAllTokenVersions()) {
+            loaded.put(row.getEmail(), row.getTokenVersion());
+        }
+        versions = loaded;
+        log.debug("Token versions reloaded ({} admins)", loaded.size());
+    }
+
+    public boolean isCurrent(String subject, int tokenVersion) {
+        Integer known = versions.get(subject);
+        // Révoqué / absent en base : résultat négatif mis en cache, levé par publish() ou au prochain refresh()
+        if (known != null && known == REVOKED) return false;
+        // Inconnu ou jeton plus récent que la vue locale (émis par une autre instance) : relecture ciblée
+        if (known == null || tokenVersion > known) {
+            known = adminsRepository.findTokenVersionByEmail(subject).orElse(REVOKED);
+            versions.put(subject, known);
+        }
+        return known != REVOKED && known == tokenVersion;
+    }
+
+    // Appliqué après commit pour ne jamais publier une version annulée par un rollback
+    public void publish(String subject, int tokenVersion) {
+        afterCommit(() -> versions.put(subject, tokenVersion));
+    }
+
+    public void revoke(String subject) {
+        afterCommit(() -> versions.put(subject, REVOKED));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package mg.fizanakara.api.security;
+
+import java.time.Instant;
+import java.util.List;
+
+// Vue immuable d'un JWT déjà vérifié (signature + expiration) : aucun re-parsing nécessaire
+public record VerifiedToken(String subject, List<String> roles, Integer version, Instant expiresAt) {
+
+    public VerifiedToken {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    public boolean hasStatelessClaims() {
+        return !roles.isEmpty() && version != null;
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+}
@@ -8,6 +8,8 @@ import mg.fizanakara.api.models.enums.Gender;
 import mg.fizanakara.api.repository.AdminsRepository;
 import mg.fizanakara.api.repository.RefreshTokenRepository;
 import mg.fizanakara.api.repository.PasswordResetTokenRepository;
+import mg.fizanakara.api.security.CustomUserDetailsService;
+import mg.fizanakara.api.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,6 +28,8 @@ public class AdminsService {
     private final SequenceService sequenceService;
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     public Admins register(Admins admin) throws AdminsException {
         if (adminsRepository.existsByEmail(admin.getEmail()))
@@ -63,6 +67,8 @@ public class AdminsService {
         
         // 3. Suppression de l'admin (Les Members ne sont pas impactés car pas de lien Cascade ici)
         adminsRepository.delete(admin);
+        userDetailsService.evict(admin.getEmail());
+        tokenVersionRegistry.revoke(admin.getEmail());
         log.info("Admin supprimé : {}. Les membres sont conservés.", admin.getId());
     }
 
@@ -99,7 +105,17 @@ public class AdminsService {
         if (req.getPassword() != null) { admin.setPassword(passwordEncoder.encode(req.getPassword())); changes++; }
         if (req.getVerified() != null) { admin.setVerified(req.getVerified()); changes++; }
 
+        // Changement d'identifiants : les access tokens déjà émis deviennent invalides
+        boolean credentialsChanged = req.getPassword() != null || !email.equals(admin.getEmail());
+        if (credentialsChanged) admin.setTokenVersion(admin.getTokenVersion() + 1);
+
         Admins updated = adminsRepository.save(admin);
+        userDetailsService.evict(email);
+        userDetailsService.evict(updated.getEmail());
+        if (credentialsChanged) {
+            if (!email.equals(updated.getEmail())) tokenVersionRegistry.revoke(email);
+            tokenVersionRegistry.publish(updated.getEmail(), updated.getTokenVersion());
+        }
         log.info("Admin {} mis à jour", email);
         return new AdminResponseDto(updated);
     }
@@ -0,0 +1,108 @@
+package mg.fizanakara.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// ETag des listes : compteur de modifications par table = SUM(weight) de table_changes (voir ChangeTrackingInitializer).
+// Chaque transaction écrivante y ajoute 1 ligne visible à son commit : le compteur change exactement quand les données
+// deviennent visibles. Lecture indexée sur la clé primaire, sans charger ni sérialiser d'entité.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChangeTrackingService {
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataService referenceDataService;
+
+    // Replie les lignes commitées dans la ligne de base (txid 0) en une seule instruction : la somme lue ne change pas
+    private static final String COMPACT_SQL =
+            "WITH moved AS (DELETE FROM table_changes WHERE txid <> 0 RETURNING table_name, weight) " +
+            "INSERT INTO table_changes (table_name, txid, weight) " +
+            "SELECT table_name, 0, SUM(weight) FROM moved GROUP BY table_name " +
+            "ON CONFLICT (table_name, txid) DO UPDATE SET weight = table_changes.weight + EXCLUDED.weight";
+
+    // Posé par ChangeTrackingInitializer une fois les triggers vérifiés ; sinon aucun ETag (toujours 200)
+    private volatile boolean enabled;
+
+    // Liste blanche : seuls ces noms de table sont concaténés dans le SQL
+    public enum TrackedTable {
+        PERSONS("persons"),
+        CONTRIBUTIONS("contributions"),
+        PAYMENTS("payments");
+
+        private final String tableName;
+
+        TrackedTable(String tableName) {
+            this.tableName = tableName;
+        }
+    }
+
+    public void enable() {
+        enabled = true;
+    }
+
+    // Liste des personnes : noms de district / tribu résolus depuis les tables de référence
+    public String personsTag() {
+        String state = tableTag("persons", TrackedTable.PERSONS);
+        return state == null ? null : state
+                + ".d" + referenceDataService.districts().getFingerprint()
+                + ".t" + referenceDataService.tributes().getFingerprint();
+    }
+
+    // Liste des cotisations : embarque le nom du membre et ses paiements
+    public String contributionsTag() {
+        return tableTag("contributions", TrackedTable.CONTRIBUTIONS, TrackedTable.PERSONS, TrackedTable.PAYMENTS);
+    }
+
+    public String paymentsTag() {
+        return tableTag("payments", TrackedTable.PAYMENTS);
+    }
+
+    public String districtsTag() {
+        return "districts-" + referenceDataService.districts().getFingerprint();
+    }
+
+    public String tributesTag() {
+        return "tributes-" + referenceDataService.tributes().getFingerprint();
+    }
+
+    // PLANIFIÉ : garde table_changes à quelques lignes par table (1 par transaction écrivante depuis le dernier passage)
+    @Scheduled(cron = "${app.change-tracking.compact-cron:0 */5 * * * *}")
+    public void compact() {
+        if (!enabled) return;
+        try {
+            jdbcTemplate.update(COMPACT_SQL);
+        } catch (DataAccessException e) {
+            log.warn("table_changes compaction failed: {}", e.getMessage());
+        }
+    }
+
+    // 1 aller-retour pour toutes les tables ; null → pas de GET conditionnel (suivi indisponible)
+    private String tableTag(String prefix, TrackedTable... tables) {
+        if (!enabled) return null;
+        String names = Arrays.stream(tables).map(t -> "'" + t.tableName + "'").collect(Collectors.joining(", "));
+        Map<String, Long> counters = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT table_name, SUM(weight) FROM table_changes WHERE table_name IN (" + names + ") " +
+                    "GROUP BY table_name", rs -> {
+                counters.put(rs.getString(1), rs.getLong(2));
+            });
+        } catch (DataAccessException e) {
+            log.warn("Change counters unavailable, serving without ETag: {}", e.getMessage());
+            return null;
+        }
+        StringBuilder etag = new StringBuilder(prefix);
+        for (TrackedTable table : tables) {
+            etag.append('-').append(Long.toHexString(counters.getOrDefault(table.tableName, 0L)));
+        }
+        return etag.toString();
+    }
+}
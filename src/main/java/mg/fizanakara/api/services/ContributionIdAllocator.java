@@ -0,0 +1,114 @@
+package mg.fizanakara.api.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Allocation des suffixes "COT2026-xxx" : une séquence PostgreSQL par année, réservée par blocs (hi/lo)
+// via SequenceService. Sûr entre redémarrages et répliques.
+@Service
+@Slf4j
+public class ContributionIdAllocator {
+    private static final int MIN_SUFFIX_DIGITS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceService sequenceService;
+    // Transaction propre (REQUIRES_NEW) : le CREATE SEQUENCE ne doit pas suivre le rollback de la transaction métier
+    private final TransactionTemplate ddlTransaction;
+    private final int blockSize;
+
+    private final Set<Integer> initializedYears = ConcurrentHashMap.newKeySet();
+
+    public ContributionIdAllocator(JdbcTemplate jdbcTemplate,
+                                   SequenceService sequenceService,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.contributions.id-block-size:50}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sequenceService = sequenceService;
+        this.blockSize = blockSize;
+        this.ddlTransaction = new TransactionTemplate(transactionManager);
+        this.ddlTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public String nextSuffix(Year year) {
+        String seqName = ensureSequence(year);
+        try {
+            return formatSuffix(sequenceService.getNextSequence(seqName));
+        } catch (RuntimeException e) {
+            forgetIfMissing(year, e);
+            throw e;
+        }
+    }
+
+    // Pour la génération en masse : au plus 1 aller-retour pour tous les blocs manquants
+    public List<String> nextSuffixes(Year year, int count) {
+        String seqName = ensureSequence(year);
+        long[] values;
+        try {
+            values = sequenceService.getNextSequences(seqName, count);
+        } catch (RuntimeException e) {
+            forgetIfMissing(year, e);
+            throw e;
+        }
+        List<String> suffixes = new ArrayList<>(values.length);
+        for (long value : values) suffixes.add(formatSuffix(value));
+        return suffixes;
+    }
+
+    private String ensureSequence(Year year) {
+        String seqName = "contribution_seq_" + year.getValue();
+        if (initializedYears.contains(year.getValue())) return seqName;
+
+        try {
+            ddlTransaction.executeWithoutResult(status -> createSequence(year, seqName));
+        } catch (DataAccessException e) {
+            // Création concurrente par une autre réplique (course sur pg_type malgré IF NOT EXISTS) :
+            // l'échec n'a avorté que la transaction dédiée ; on vérifie que la séquence existe bien
+            if (!sequenceExists(seqName)) throw e;
+            log.debug("Sequence {} created concurrently : {}", seqName, e.getMessage());
+        }
+        // Marquée seulement après le commit de la transaction dédiée
+        initializedYears.add(year.getValue());
+        return seqName;
+    }
+
+    private void createSequence(Year year, String seqName) {
+        // Démarre après les suffixes déjà attribués (anciens IDs générés par compteur en mémoire)
+        Long maxSuffix = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(CAST(sequence_suffix AS BIGINT)), 0) FROM contributions " +
+                        "WHERE year = ? AND sequence_suffix ~ '^[0-9]+$'", Long.class, year.getValue());
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + seqName +
+                " START WITH " + (maxSuffix + 1) + " INCREMENT BY " + blockSize);
+    }
+
+    private boolean sequenceExists(String seqName) {
+        return Boolean.TRUE.equals(ddlTransaction.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, seqName)));
+    }
+
+    // Séquence supprimée entre-temps : la prochaine demande la recrée (les blocs du nœud sont déjà purgés par SequenceService)
+    private void forgetIfMissing(Year year, RuntimeException e) {
+        if (SequenceService.isMissingSequence(e)) {
+            initializedYears.remove(year.getValue());
+        }
+    }
+
+    private String formatSuffix(long value) {
+        String digits = Long.toString(value);
+        if (digits.length() >= MIN_SUFFIX_DIGITS) return digits;
+        StringBuilder sb = new StringBuilder(MIN_SUFFIX_DIGITS);
+        for (int i = digits.length(); i < MIN_SUFFIX_DIGITS; i++) sb.append('0');
+        return sb.append(digits).toString();
+    }
+}
@@ -2,10 +2,16 @@ package mg.fizanakara.api.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.contributions.ContributionGenerationSummaryDto;
+import mg.fizanakara.api.dto.contributions.ContributionPageDto;
 import mg.fizanakara.api.dto.contributions.ContributionResponseDto;
+import mg.fizanakara.api.dto.contributions.ContributionRow;
 import mg.fizanakara.api.dto.contributions.ContributionUpdateDto;
 import mg.fizanakara.api.dto.contributions.ContributionYearDto;
 import mg.fizanakara.api.dto.payments.PaymentResponseDto;
+import mg.fizanakara.api.dto.payments.PaymentRow;
+import mg.fizanakara.api.dto.person.EligiblePersonRow;
+import mg.fizanakara.api.dto.stats.ContributionSnapshot;
 import mg.fizanakara.api.exceptions.ContributionNotFoundException;
 import mg.fizanakara.api.models.Contribution;
 import mg.fizanakara.api.models.Person;
@@ -14,15 +20,24 @@ import mg.fizanakara.api.models.enums.MemberStatus;
 import mg.fizanakara.api.repository.ContributionRepository;
 import mg.fizanakara.api.repository.PersonRepository;
 import mg.fizanakara.api.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
 import java.time.LocalDate;
 import java.time.Year;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,60 +47,95 @@ public class ContributionService {
     private final ContributionRepository contributionRepository;
     private final PaymentRepository paymentRepository;
     private final PersonRepository personRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ContributionIdAllocator contributionIdAllocator;
+    private final StatsService statsService;
+    private final HouseholdService householdService;
 
-    private final AtomicInteger sequenceCounter = new AtomicInteger(1);
+    @Value("${app.contributions.batch-size:500}")
+    private int insertBatchSize;
+
+    private static final int MAX_PAGE_SIZE = 200;
 
     // GET ALL
     @Transactional(readOnly = true)
     public List<ContributionResponseDto> getAllContributions() {
         log.info("Retrieving all contributions");
-        return contributionRepository.findAll().stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return assembleResponseDtos(contributionRepository.findAllRows(), paymentRepository.findAllRows());
+    }
+
+    // GET PAGE (keyset sur (year, id) + filtres optionnels)
+    @Transactional(readOnly = true)
+    public ContributionPageDto getContributionsPage(String cursor, int size, ContributionStatus status,
+                                                    Year year, Long districtId, Long tributeId) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int limit = pageSize + 1;  // +1 pour savoir s'il reste une page
+
+        List<ContributionRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = contributionRepository.findRowsPage(status, year, districtId, tributeId, null, null, limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            rows = contributionRepository.findRowsPage(status, year, districtId, tributeId,
+                    Year.of(Integer.parseInt(position[0])), position[1], limit);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) rows = rows.subList(0, pageSize);
+        String nextCursor = hasMore ? encodeCursor(rows.get(rows.size() - 1)) : null;
+
+        log.info("Retrieved {} contributions (hasMore: {})", rows.size(), hasMore);
+        return new ContributionPageDto(mapRowsToResponseDtos(rows), nextCursor, hasMore);
     }
 
     // GET BY PERSON AND YEAR (utilise membreId standard)
     @Transactional(readOnly = true)
     public List<ContributionResponseDto> getContributionsByPersonAndYear(String personId, Year year) {
         log.info("Retrieving contributions for person ID: {} and year: {}", personId, year);
-        return contributionRepository.findByMemberIdAndYear(personId, year).stream()  // ← FIX : Appel standard
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+        return mapRowsToResponseDtos(contributionRepository.findRowsByMemberIdAndYear(personId, year));
     }
 
-    // BATCH CRÉATION ANNUELLE (unifié pour Persons)
+    // BATCH CRÉATION ANNUELLE (unifié pour Persons) – même pipeline que la génération en masse
     @Transactional
     public List<ContributionResponseDto> createContributionsForYear(ContributionYearDto dto) {
         Year year = dto.getYear();
-        int yearValue = year.getValue();
         log.info("Generating annual contributions for year: {}", year);
 
-        List<Person> eligiblePersons = personRepository.findEligiblePersonsForContribution(yearValue);
-
-        List<ContributionResponseDto> created = new ArrayList<>();
+        List<ContributionRow> created = generateContributionRows(year, personRepository.findEligiblePersonRowsForContribution(year.getValue()));
 
-        sequenceCounter.set(1);
+        log.info("Generated {} new contributions for year: {}", created.size(), year);
+        return assembleResponseDtos(created, List.of());  // Cotisations neuves : aucun paiement
+    }
 
-        for (Person person : eligiblePersons) {
-            String personId = person.getId();
-            String childId = person.isActiveMember() ? null : personId;
-            if (contributionRepository.hasDuplicateByMemberAndYear(personId, year, childId)) {
-                log.warn("Contribution for person {} and year {} already exists – skipping", personId, year);
-                continue;
-            }
-            BigDecimal amount = calculateAmountForUser(person, year);
-            Contribution contribution = createSingleContribution(year, amount, ContributionStatus.PENDING, personId, childId);
-            created.add(mapToResponseDto(contribution));
-        }
+    // GÉNÉRATION EN MASSE (retourne un résumé, pas la liste des DTO)
+    @Transactional
+    public ContributionGenerationSummaryDto generateContributionsForYear(Year year) {
+        long start = System.currentTimeMillis();
+        log.info("Bulk generating annual contributions for year: {}", year);
+
+        List<EligiblePersonRow> eligible = personRepository.findEligiblePersonRowsForContribution(year.getValue());
+        List<ContributionRow> created = generateContributionRows(year, eligible);
+
+        BigDecimal totalBilled = created.stream().map(ContributionRow::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        long elapsed = System.currentTimeMillis() - start;
+        log.info("Bulk generated {} contributions for year {} ({} skipped) in {} ms",
+                created.size(), year, eligible.size() - created.size(), elapsed);
+        return new ContributionGenerationSummaryDto(year, eligible.size(), created.size(),
+                eligible.size() - created.size(), totalBilled, elapsed);
+    }
 
-        log.info("Generated {} new contributions for year: {}", created.size(), year);
+    // LOT POUR PERSONS DONNÉES (promotion en masse) – même pipeline, membres déjà facturés ignorés
+    @Transactional
+    public List<ContributionRow> createContributionsForPersons(Year year, List<EligiblePersonRow> persons) {
+        List<ContributionRow> created = generateContributionRows(year, persons);
+        log.info("Generated {} contributions for {} persons and year {}", created.size(), persons.size(), year);
         return created;
     }
 
     // SINGLE POUR PERSON
     @Transactional
     public ContributionResponseDto createSingleContributionForPerson(Year year, String personId) {
-        if (contributionRepository.hasDuplicateByMemberAndYear(personId, year, null)) {
+        if (contributionRepository.hasDuplicateByMemberAndYear(personId, year)) {
             throw new IllegalArgumentException("Contribution for this person and year already exists");
         }
 
@@ -103,11 +153,12 @@ public class ContributionService {
                 .childId(person.isEligibleForContribution(year) ? null : personId)
                 .build();
 
-        String suffix = String.format("%03d", sequenceCounter.getAndIncrement());
-        contribution.setSequenceSuffix(suffix);
+        contribution.setSequenceSuffix(contributionIdAllocator.nextSuffix(year));
         contribution.setId(contribution.generatedCustomId());
 
         Contribution saved = contributionRepository.save(contribution);
+        statsService.record(null, snapshot(saved, BigDecimal.ZERO));
+        householdService.evictAfterCommit(List.of(year.getValue()));
         return mapToResponseDto(saved);
     }
 
@@ -116,6 +167,8 @@ public class ContributionService {
     public ContributionResponseDto updateContribution(String id, ContributionUpdateDto dto) {
         Contribution contribution = contributionRepository.findById(id)
                 .orElseThrow(() -> new ContributionNotFoundException("Contribution not found with ID: " + id));
+        BigDecimal totalPaid = contribution.getPaidTotal();
+        ContributionSnapshot before = snapshot(contribution, totalPaid);
 
         if (dto.getAmount() != null) contribution.setAmount(dto.getAmount());
         if (dto.getStatus() != null) contribution.setStatus(dto.getStatus());
@@ -127,6 +180,8 @@ public class ContributionService {
 
         log.info("Updating contribution ID: {}", id);
         Contribution updated = contributionRepository.save(contribution);
+        statsService.record(before, snapshot(updated, totalPaid));
+        householdService.evictAfterCommit(List.of(before.getYear(), updated.getYear().getValue()));
         return mapToResponseDto(updated);
     }
 
@@ -136,17 +191,23 @@ public class ContributionService {
         Contribution contribution = contributionRepository.findById(id)
                 .orElseThrow(() -> new ContributionNotFoundException("Contribution not found with ID: " + id));
         log.info("Deleting contribution ID: {}", id);
+        ContributionSnapshot before = snapshot(contribution, contribution.getPaidTotal());
         contributionRepository.delete(contribution);
+        statsService.record(before, null);
+        householdService.evictAfterCommit(List.of(before.getYear()));
     }
 
-    // UPDATE STATUS POST-PAIEMENT
+    // UPDATE STATUS POST-PAIEMENT : applique la variation au solde matérialisé puis recalcule le statut (aucun SUM)
     @Transactional
-    public void updateContributionStatusAfterPayment(String contributionId) {
+    public void updateContributionStatusAfterPayment(String contributionId, BigDecimal paidDelta, int paymentCountDelta) {
+        if (contributionRepository.applyPaymentDelta(contributionId, paidDelta, paymentCountDelta) == 0) {
+            throw new ContributionNotFoundException("Contribution not found with ID: " + contributionId);
+        }
         Contribution contribution = contributionRepository.findById(contributionId)
                 .orElseThrow(() -> new ContributionNotFoundException("Contribution not found with ID: " + contributionId));
 
-        BigDecimal totalPaid = paymentRepository.getTotalPaidByContributionId(contributionId);
-        if (totalPaid == null) totalPaid = BigDecimal.ZERO;
+        BigDecimal totalPaid = contribution.getPaidTotal();
+        ContributionSnapshot before = snapshot(contribution, totalPaid.subtract(paidDelta));
 
         log.info("Updating status for contribution ID: {} totalPaid: {} amount: {}", contributionId, totalPaid, contribution.getAmount());
 
@@ -161,67 +222,155 @@ public class ContributionService {
         }
 
         contributionRepository.save(contribution);
+        statsService.record(before, snapshot(contribution, totalPaid));
+        householdService.evictAfterCommit(List.of(contribution.getYear().getValue()));
+    }
+
+    // AGRÉGATS : état d'une cotisation tel que vu par contribution_stats
+    private ContributionSnapshot snapshot(Contribution contribution, BigDecimal paid) {
+        Person member = contribution.getMember();
+        return new ContributionSnapshot(contribution.getYear().getValue(), member.getDistrict().getId(),
+                member.getTribute().getId(), contribution.getStatus(), contribution.getAmount(), paid);
     }
 
-    // MAPPING DTO
+    // MAPPING DTO (unitaire : délègue au mapping ensembliste)
     private ContributionResponseDto mapToResponseDto(Contribution contribution) {
-        ContributionResponseDto dto = new ContributionResponseDto();
-        dto.setId(contribution.getId());
-        dto.setYear(contribution.getYear());
-        dto.setAmount(contribution.getAmount());
-        dto.setStatus(contribution.getStatus());
-        dto.setDueDate(contribution.getDueDate());
-        dto.setMemberId(contribution.getMember().getId());
-        dto.setMemberName(contribution.getMember().getFirstName() + " " + contribution.getMember().getLastName());
-
-        if (contribution.getChildId() != null) {
-            dto.setChildId(contribution.getChildId());
-        }
+        return mapRowsToResponseDtos(List.of(new ContributionRow(contribution))).get(0);
+    }
 
-        BigDecimal totalPaid = paymentRepository.getTotalPaidByContributionId(contribution.getId());
-        dto.setTotalPaid(totalPaid != null ? totalPaid : BigDecimal.ZERO);
-        dto.setRemaining(contribution.getAmount().subtract(dto.getTotalPaid()));
+    // MAPPING ENSEMBLISTE : 1 seule requête IN pour les paiements, quel que soit le nombre de lignes
+    private List<ContributionResponseDto> mapRowsToResponseDtos(List<ContributionRow> rows) {
+        if (rows.isEmpty()) return new ArrayList<>();
+        List<String> ids = rows.stream().map(ContributionRow::getId).collect(Collectors.toList());
+        return assembleResponseDtos(rows, paymentRepository.findRowsByContributionIds(ids));
+    }
 
-        dto.setPayments(paymentRepository.findByContributionId(contribution.getId()).stream()
-                .map(payment -> {
-                    PaymentResponseDto pDto = new PaymentResponseDto();
-                    pDto.setId(payment.getId());
-                    pDto.setAmountPaid(payment.getAmountPaid());
-                    pDto.setPaymentDate(LocalDate.from(payment.getPaymentDate()));
-                    pDto.setStatus(payment.getStatus());
-                    pDto.setContributionId(payment.getContribution().getId());
-                    return pDto;
-                })
-                .collect(Collectors.toList()));
+    // Assemblage en mémoire : regroupe les paiements par cotisation puis calcule totalPaid / remaining
+    private List<ContributionResponseDto> assembleResponseDtos(List<ContributionRow> rows, List<PaymentRow> payments) {
+        Map<String, List<PaymentRow>> paymentsByContribution = payments.stream()
+                .collect(Collectors.groupingBy(PaymentRow::getContributionId));
+
+        List<ContributionResponseDto> result = new ArrayList<>(rows.size());
+        for (ContributionRow row : rows) {
+            List<PaymentRow> lines = paymentsByContribution.getOrDefault(row.getId(), List.of());
+
+            ContributionResponseDto dto = new ContributionResponseDto();
+            dto.setId(row.getId());
+            dto.setYear(row.getYear());
+            dto.setAmount(row.getAmount());
+            dto.setStatus(row.getStatus());
+            dto.setDueDate(row.getDueDate());
+            dto.setMemberId(row.getMemberId());
+            dto.setMemberName(row.getMemberFirstName() + " " + row.getMemberLastName());
+            dto.setChildId(row.getChildId());
+
+            List<PaymentResponseDto> paymentDtos = new ArrayList<>(lines.size());
+            for (PaymentRow line : lines) {
+                paymentDtos.add(mapPaymentRow(line));
+            }
+            dto.setTotalPaid(row.getPaidTotal());
+            dto.setRemaining(row.getAmount().subtract(row.getPaidTotal()));
+            dto.setPayments(paymentDtos);
+            result.add(dto);
+        }
+        return result;
+    }
 
-        return dto;
+    private PaymentResponseDto mapPaymentRow(PaymentRow line) {
+        PaymentResponseDto pDto = new PaymentResponseDto();
+        pDto.setId(line.getId());
+        pDto.setAmountPaid(line.getAmountPaid());
+        pDto.setPaymentDate(LocalDate.from(line.getPaymentDate()));
+        pDto.setStatus(line.getStatus());
+        pDto.setContributionId(line.getContributionId());
+        return pDto;
     }
 
-    // HELPER PRIVATE (adapté pour Person)
-    private Contribution createSingleContribution(Year year, BigDecimal amount, ContributionStatus status, String personId, String childId) {
-        Person person = personRepository.findById(personId)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Person ID: " + personId));
+    // PIPELINE EN MASSE : membres déjà facturés en 1 requête, montants en mémoire, INSERT JDBC par lots
+    private List<ContributionRow> generateContributionRows(Year year, List<EligiblePersonRow> eligible) {
+        Set<String> alreadyBilled = new HashSet<>(contributionRepository.findBilledMemberIdsByYear(year));
+        LocalDate dueDate = LocalDate.of(year.getValue(), 12, 31);
+
+        List<EligiblePersonRow> toBill = new ArrayList<>();
+        for (EligiblePersonRow person : eligible) {
+            if (alreadyBilled.add(person.getId())) {
+                toBill.add(person);
+            } else {
+                log.debug("Contribution for person {} and year {} already exists – skipping", person.getId(), year);
+            }
+        }
+        if (toBill.isEmpty()) return new ArrayList<>();
+
+        List<String> suffixes = contributionIdAllocator.nextSuffixes(year, toBill.size());
+        List<ContributionRow> toInsert = new ArrayList<>(toBill.size());
+        List<ContributionSnapshot> snapshots = new ArrayList<>(toBill.size());
+        for (int i = 0; i < toBill.size(); i++) {
+            EligiblePersonRow person = toBill.get(i);
+            BigDecimal amount = calculateAmount(person.getBirthDate(), person.getStatus(), year);
+            snapshots.add(new ContributionSnapshot(year.getValue(), person.getDistrictId(), person.getTributeId(),
+                    ContributionStatus.PENDING, amount, BigDecimal.ZERO));
+            toInsert.add(new ContributionRow(
+                    "COT" + year + "-" + suffixes.get(i),
+                    year,
+                    amount,
+                    ContributionStatus.PENDING,
+                    dueDate,
+                    person.getId(),
+                    person.getFirstName(),
+                    person.getLastName(),
+                    person.isActiveMember() ? null : person.getId(),
+                    BigDecimal.ZERO));
+        }
 
-        Contribution contribution = Contribution.builder()
-                .year(year)
-                .amount(amount)
-                .status(status)
-                .dueDate(LocalDate.of(year.getValue(), 12, 31))
-                .member(person)  // ← FIX : OK avec type Person
-                .childId(childId)
-                .build();
+        batchInsertContributions(toInsert);
+        statsService.applySnapshots(List.of(), snapshots);
+        // Génération annuelle, promotions et import passent tous par ici
+        householdService.evictAfterCommit(List.of(year.getValue()));
+        return toInsert;
+    }
 
-        String suffix = String.format("%03d", sequenceCounter.getAndIncrement());
-        contribution.setSequenceSuffix(suffix);
-        contribution.setId(contribution.generatedCustomId());
+    private void batchInsertContributions(List<ContributionRow> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO contributions (id, year, amount, status, due_date, member_id, child_id, sequence_suffix, paid_total, payment_count) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)",
+                rows, insertBatchSize, (ps, row) -> {
+                    ps.setString(1, row.getId());
+                    ps.setInt(2, row.getYear().getValue());
+                    ps.setBigDecimal(3, row.getAmount());
+                    ps.setString(4, row.getStatus().name());
+                    ps.setDate(5, Date.valueOf(row.getDueDate()));
+                    ps.setString(6, row.getMemberId());
+                    ps.setString(7, row.getChildId());
+                    ps.setString(8, row.getId().substring(row.getId().lastIndexOf('-') + 1));
+                });
+    }
 
-        return contributionRepository.save(contribution);
+    // CURSEUR OPAQUE : base64url("year:id")
+    private String encodeCursor(ContributionRow last) {
+        String raw = last.getYear().getValue() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split(":", 2);
+            if (position.length != 2 || position[1].isEmpty()) throw new IllegalArgumentException("Malformed cursor");
+            Integer.parseInt(position[0]);
+            return position;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
     }
 
     // CALCUL AMOUNT (adapté pour Person)
     private BigDecimal calculateAmountForUser(Person person, Year year) {
-        int age = person.calculateAgeAtYear(person.getBirthDate(), year);
-        MemberStatus status = person.getStatus();
+        return calculateAmount(person.getBirthDate(), person.getStatus(), year);
+    }
+
+    private BigDecimal calculateAmount(LocalDate birthDate, MemberStatus status, Year year) {
+        int age = Person.calculateAgeAtYear(birthDate, year);
         if (age >= 18 && age <= 21 && status == MemberStatus.STUDENT) {
             return BigDecimal.valueOf(30000);
         }
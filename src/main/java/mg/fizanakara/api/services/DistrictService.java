@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import mg.fizanakara.api.dto.districts.DistrictDto;
 import mg.fizanakara.api.models.District;
 import mg.fizanakara.api.repository.DistrictRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -18,10 +19,11 @@ import java.util.Map;
 @Slf4j
 public class DistrictService {
     private final DistrictRepository districtRepository;
+    private final ReferenceDataService referenceDataService;
 
-    // GET ALL
+    // GET ALL (cache de référence, voir ReferenceDataService)
     public List<District> getAllDistricts() {
-        return districtRepository.findAll();
+        return referenceDataService.districts().getAll();
     }
 
     // GET BY ID
@@ -31,6 +33,7 @@ public class DistrictService {
 
     // CREATE
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.DISTRICTS, allEntries = true)
     public District createDistrict(DistrictDto dto) {
         if (districtRepository.existsByName(dto.getName())) {
             throw new IllegalArgumentException("District with name '" + dto.getName() + "' has exist");
@@ -44,6 +47,7 @@ public class DistrictService {
 
     // UPDATE BY ID
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.DISTRICTS, allEntries = true)
     public District updateDistrict(Long id, DistrictDto dto) {
         District district = getDistrictById(id);
         if (!district.getName().equals(dto.getName()) && districtRepository.existsByName(dto.getName())) {
@@ -56,6 +60,7 @@ public class DistrictService {
 
     // DELETE BY ID
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.DISTRICTS, allEntries = true)
     public void deleteDistrict(Long id) {
         District district = getDistrictById(id);
         log.info("Suppression du district ID : {}", id);
@@ -64,6 +69,7 @@ public class DistrictService {
 
     // DELETE ALL
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.DISTRICTS, allEntries = true)
     public ResponseEntity<Map<String, Object>> deleteAllDistricts() {
         districtRepository.deleteAll();
         return ResponseEntity.ok(Map.of("message", "All districts deleted", "success", true));
@@ -0,0 +1,97 @@
+package mg.fizanakara.api.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.exports.ContributionExportRow;
+import mg.fizanakara.api.dto.exports.ExportFormat;
+import mg.fizanakara.api.dto.exports.PaymentExportRow;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+import mg.fizanakara.api.repository.ContributionRepository;
+import mg.fizanakara.api.repository.PaymentRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+    private final ContributionRepository contributionRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    private static final String[] CONTRIBUTION_HEADER = {"id", "year", "memberId", "memberFirstName", "memberLastName",
+            "districtName", "tributeName", "amount", "totalPaid", "remaining", "status", "dueDate"};
+    private static final String[] PAYMENT_HEADER = {"id", "contributionId", "year", "memberId", "memberFirstName",
+            "memberLastName", "amountPaid", "paymentDate", "status"};
+
+    // EXPORT COTISATIONS (la transaction maintient le curseur ouvert pendant toute l'écriture)
+    @Transactional(readOnly = true)
+    public long exportContributions(OutputStream target, ExportFormat format, boolean gzip, Year year, ContributionStatus status) throws IOException {
+        try (Stream<ContributionExportRow> rows = contributionRepository.streamExportRows(year, status)) {
+            return writeRows(rows, target, format, gzip, CONTRIBUTION_HEADER, row -> new Object[]{
+                    row.getId(), row.getYear(), row.getMemberId(), row.getMemberFirstName(), row.getMemberLastName(),
+                    row.getDistrictName(), row.getTributeName(), row.getAmount(), row.getTotalPaid(),
+                    row.getRemaining(), row.getStatus(), row.getDueDate()});
+        }
+    }
+
+    // EXPORT PAIEMENTS
+    @Transactional(readOnly = true)
+    public long exportPayments(OutputStream target, ExportFormat format, boolean gzip, Year year) throws IOException {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamExportRows(year)) {
+            return writeRows(rows, target, format, gzip, PAYMENT_HEADER, row -> new Object[]{
+                    row.getId(), row.getContributionId(), row.getYear(), row.getMemberId(), row.getMemberFirstName(),
+                    row.getMemberLastName(), row.getAmountPaid(), row.getPaymentDate(), row.getStatus()});
+        }
+    }
+
+    // Écriture ligne par ligne dans un tampon fixe : mémoire constante quel que soit le volume
+    private <T> long writeRows(Stream<T> rows, OutputStream target, ExportFormat format, boolean gzip,
+                               String[] header, Function<T, Object[]> csvValues) throws IOException {
+        long start = System.currentTimeMillis();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(target, 8192) : null;
+        OutputStream out = new BufferedOutputStream(compressed != null ? compressed : target, 64 * 1024);
+
+        long count = 0;
+        if (format == ExportFormat.CSV) out.write(csvLine(header));
+        for (Iterator<T> it = rows.iterator(); it.hasNext(); count++) {
+            T row = it.next();
+            if (format == ExportFormat.CSV) {
+                out.write(csvLine(csvValues.apply(row)));
+            } else {
+                out.write(objectMapper.writeValueAsBytes(row));
+                out.write('\n');
+            }
+        }
+
+        out.flush();
+        if (compressed != null) compressed.finish();
+        log.info("Exported {} rows as {}{} in {} ms", count, format, gzip ? " (gzip)" : "", System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private static byte[] csvLine(Object[] values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) line.append(',');
+            String value = values[i] == null ? "" : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,106 @@
+package mg.fizanakara.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.person.FamilyTreeNodeDto;
+import mg.fizanakara.api.dto.person.FamilyTreeRow;
+import mg.fizanakara.api.exceptions.PersonNotFoundException;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FamilyTreeService {
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public static final int DEFAULT_DEPTH = 5;
+    private static final int MAX_DEPTH = 20;
+
+    // Descendance complète en 1 jointure indexée sur la table de fermeture (plus de parcours récursif de parent_id)
+    private static final String TREE_SELECT =
+            "SELECT p.id, p.parent_id, a.depth, p.first_name, p.last_name, p.birth_date, p.gender, p.status, p.is_active_member, " +
+            "a.depth = :maxDepth AND EXISTS (SELECT 1 FROM persons ch WHERE ch.parent_id = p.id) AS truncated, " +
+            "(SELECT COUNT(*) - 1 FROM person_ancestry d WHERE d.ancestor_id = p.id) AS descendant_count";
+
+    private static final String TREE_SQL = TREE_SELECT + ", NULL AS billed, NULL AS paid " +
+            "FROM person_ancestry a JOIN persons p ON p.id = a.descendant_id " +
+            "WHERE a.ancestor_id = :rootId AND a.depth <= :maxDepth " +
+            "ORDER BY a.depth, p.birth_date, p.id";
+
+    // Soldes par nœud dans le même aller-retour (idx_contributions_member_year) ; une variante par forme de filtre,
+    // sans "(c.year = :year OR :allYears)", pour que le plan générique garde la condition d'index sur l'année
+    private static final String TREE_WITH_BALANCES_SQL = treeWithBalancesSql("");
+    private static final String TREE_WITH_YEAR_BALANCES_SQL = treeWithBalancesSql(" AND c.year = :year");
+
+    private static String treeWithBalancesSql(String yearFilter) {
+        return TREE_SELECT + ", b.billed, b.paid " +
+                "FROM person_ancestry a JOIN persons p ON p.id = a.descendant_id " +
+                "LEFT JOIN LATERAL (SELECT COALESCE(SUM(c.amount), 0) AS billed, COALESCE(SUM(c.paid_total), 0) AS paid " +
+                "  FROM contributions c WHERE c.member_id = p.id" + yearFilter + ") b ON TRUE " +
+                "WHERE a.ancestor_id = :rootId AND a.depth <= :maxDepth " +
+                "ORDER BY a.depth, p.birth_date, p.id";
+    }
+
+    private static final RowMapper<FamilyTreeRow> ROW_MAPPER = (rs, rowNum) -> new FamilyTreeRow(
+            rs.getString("id"),
+            rs.getString("parent_id"),
+            rs.getInt("depth"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            rs.getObject("birth_date", LocalDate.class),
+            Gender.valueOf(rs.getString("gender")),
+            MemberStatus.valueOf(rs.getString("status")),
+            rs.getBoolean("is_active_member"),
+            rs.getBoolean("truncated"),
+            rs.getLong("descendant_count"),
+            rs.getBigDecimal("billed"),
+            rs.getBigDecimal("paid"));
+
+    // FAMILY TREE (racine = personne demandée, descendants jusqu'à depth générations)
+    @Transactional(readOnly = true)
+    public FamilyTreeNodeDto getFamilyTree(String rootId, int depth, boolean balances, Integer year) {
+        int maxDepth = Math.max(0, Math.min(depth, MAX_DEPTH));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("rootId", rootId)
+                .addValue("maxDepth", maxDepth)
+                .addValue("year", year);
+
+        String sql = !balances ? TREE_SQL : year != null ? TREE_WITH_YEAR_BALANCES_SQL : TREE_WITH_BALANCES_SQL;
+        List<FamilyTreeRow> rows = namedJdbcTemplate.query(sql, params, ROW_MAPPER);
+        if (rows.isEmpty()) {
+            throw new PersonNotFoundException("Person not found with ID: " + rootId);
+        }
+
+        log.info("Family tree of {} loaded: {} persons, depth {}", rootId, rows.size(), maxDepth);
+        return assemble(rows);
+    }
+
+    // ASSEMBLAGE : index parent → enfants, puis construction récursive (profondeur bornée par MAX_DEPTH)
+    private FamilyTreeNodeDto assemble(List<FamilyTreeRow> rows) {
+        Map<String, List<FamilyTreeRow>> childrenByParent = new HashMap<>();
+        for (FamilyTreeRow row : rows.subList(1, rows.size())) {
+            childrenByParent.computeIfAbsent(row.getParentId(), k -> new ArrayList<>()).add(row);
+        }
+        return build(rows.get(0), childrenByParent);
+    }
+
+    private FamilyTreeNodeDto build(FamilyTreeRow row, Map<String, List<FamilyTreeRow>> childrenByParent) {
+        List<FamilyTreeNodeDto> children = new ArrayList<>();
+        for (FamilyTreeRow child : childrenByParent.getOrDefault(row.getId(), List.of())) {
+            children.add(build(child, childrenByParent));
+        }
+        return new FamilyTreeNodeDto(row, children);
+    }
+}
@@ -0,0 +1,143 @@
+package mg.fizanakara.api.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.households.HouseholdDto;
+import mg.fizanakara.api.dto.households.HouseholdMemberDto;
+import mg.fizanakara.api.dto.households.HouseholdRollupDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class HouseholdService {
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Une entrée par année : le calcul couvre tous les foyers, le filtre behindOnly est appliqué sur la copie en cache
+    private final Cache<Integer, HouseholdRollupDto> rollupCache;
+
+    private static final TypeReference<List<HouseholdMemberDto>> MEMBERS_TYPE = new TypeReference<>() {
+    };
+
+    // 1 requête groupée : chaque cotisation de l'année est rattachée à l'ancêtre racine de son membre via person_ancestry
+    private static final String ROLLUP_SQL =
+            "SELECT r.id AS root_id, r.first_name, r.last_name, d.name AS district_name, " +
+            "COUNT(c.id) AS billed_members, SUM(c.amount) AS billed, SUM(c.paid_total) AS paid, " +
+            "json_agg(json_build_object('id', m.id, 'firstName', m.first_name, 'lastName', m.last_name, " +
+            "'contributionId', c.id, 'status', c.status, 'amount', c.amount, 'paid', c.paid_total, " +
+            "'remaining', c.amount - c.paid_total) ORDER BY m.last_name, m.first_name) " +
+            "FILTER (WHERE c.paid_total < c.amount) AS members_behind " +
+            "FROM persons r " +
+            "JOIN districts d ON d.id = r.district_id " +
+            "JOIN person_ancestry a ON a.ancestor_id = r.id " +
+            "JOIN persons m ON m.id = a.descendant_id " +
+            "JOIN contributions c ON c.member_id = m.id AND c.year = :year " +
+            "WHERE r.parent_id IS NULL " +
+            "GROUP BY r.id, r.first_name, r.last_name, d.name " +
+            "ORDER BY SUM(c.amount) - SUM(c.paid_total) DESC, r.last_name, r.first_name";
+
+    public HouseholdService(NamedParameterJdbcTemplate namedJdbcTemplate,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.households.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.rollupCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(20)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rollupCache, "householdRollups");
+    }
+
+    // ROLLUP PAR FOYER (trié par reste à payer décroissant : les foyers à relancer en tête)
+    @Transactional(readOnly = true)
+    public HouseholdRollupDto getRollup(int year, boolean behindOnly, boolean refresh) {
+        if (refresh) rollupCache.invalidate(year);
+        HouseholdRollupDto rollup = rollupCache.get(year, this::computeRollup);
+        if (!behindOnly) return rollup;
+
+        List<HouseholdDto> behind = rollup.getHouseholds().stream()
+                .filter(household -> household.getRemaining().signum() > 0)
+                .collect(Collectors.toList());
+        return new HouseholdRollupDto(rollup.getYear(), rollup.getComputedAt(), behind.size(), behind);
+    }
+
+    // INVALIDATION : appelée par les écritures de paiement / statut ; appliquée après commit
+    // (une lecture concurrente recalculerait sinon le rollup sur l'état d'avant la transaction)
+    public void evictAfterCommit(Collection<Integer> years) {
+        if (years.isEmpty()) return;
+        Set<Integer> touched = Set.copyOf(years);
+        afterCommit(() -> rollupCache.invalidateAll(touched));
+    }
+
+    // Changement de structure (suppression, déplacement, renommage de membres) : toutes les années sont concernées
+    public void evictAllAfterCommit() {
+        afterCommit(rollupCache::invalidateAll);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private HouseholdRollupDto computeRollup(int year) {
+        long start = System.currentTimeMillis();
+        List<HouseholdDto> households = namedJdbcTemplate.query(ROLLUP_SQL, Map.of("year", year),
+                (rs, rowNum) -> mapHousehold(rs));
+        log.info("Household rollup for {} computed: {} households in {} ms", year, households.size(),
+                System.currentTimeMillis() - start);
+        return new HouseholdRollupDto(year, LocalDateTime.now(), households.size(), List.copyOf(households));
+    }
+
+    private HouseholdDto mapHousehold(ResultSet rs) throws SQLException {
+        return new HouseholdDto(
+                rs.getString("root_id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("district_name"),
+                rs.getInt("billed_members"),
+                rs.getBigDecimal("billed"),
+                rs.getBigDecimal("paid"),
+                rs.getBigDecimal("billed").subtract(rs.getBigDecimal("paid")),
+                parseMembers(rs.getString("members_behind")));
+    }
+
+    private List<HouseholdMemberDto> parseMembers(String json) {
+        if (json == null) return List.of();
+        try {
+            return objectMapper.readValue(json, MEMBERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid household member aggregate", e);
+        }
+    }
+}
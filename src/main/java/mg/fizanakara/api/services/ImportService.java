@@ -0,0 +1,409 @@
+package mg.fizanakara.api.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.imports.ImportJobDto;
+import mg.fizanakara.api.dto.imports.ImportJobDto.ImportState;
+import mg.fizanakara.api.dto.imports.ImportRowErrorDto;
+import mg.fizanakara.api.dto.person.EligiblePersonRow;
+import mg.fizanakara.api.dto.reference.ReferenceData;
+import mg.fizanakara.api.models.District;
+import mg.fizanakara.api.models.Person;
+import mg.fizanakara.api.models.Tribute;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import mg.fizanakara.api.repository.PersonRepository;
+import mg.fizanakara.api.services.imports.CsvRowReader;
+import mg.fizanakara.api.services.imports.RowReader;
+import mg.fizanakara.api.services.imports.XlsxRowReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class ImportService {
+    private final PersonRepository personRepository;
+    private final ReferenceDataService referenceDataService;
+    private final SequenceService sequenceService;
+    private final ContributionService contributionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Cache<String, ImportJob> jobs;
+    private final int batchSize;
+
+    private static final int MAX_REPORTED_ERRORS = 500;
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+    private static final DateTimeFormatter FRENCH_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "firstName", "lastName", "birthDate", "gender", "phoneNumber", "status", "district", "tribute");
+
+    // En-têtes acceptés (normalisés : minuscules, sans accents ni séparateurs)
+    private static final Map<String, String> HEADER_ALIASES = Map.ofEntries(
+            Map.entry("firstname", "firstName"), Map.entry("prenom", "firstName"),
+            Map.entry("lastname", "lastName"), Map.entry("nom", "lastName"),
+            Map.entry("birthdate", "birthDate"), Map.entry("datenaissance", "birthDate"), Map.entry("datedenaissance", "birthDate"),
+            Map.entry("gender", "gender"), Map.entry("sexe", "gender"), Map.entry("genre", "gender"),
+            Map.entry("phonenumber", "phoneNumber"), Map.entry("phone", "phoneNumber"), Map.entry("telephone", "phoneNumber"),
+            Map.entry("status", "status"), Map.entry("statut", "status"),
+            Map.entry("district", "district"),
+            Map.entry("tribute", "tribute"), Map.entry("tribu", "tribute"),
+            Map.entry("imageurl", "imageUrl"), Map.entry("image", "imageUrl"), Map.entry("photo", "imageUrl"));
+
+    // Même colonnes que l'entité Person (Users + Person)
+    private static final String INSERT_PERSON_SQL =
+            "INSERT INTO persons (id, sequence_number, first_name, last_name, birth_date, gender, image_url, phone_number, " +
+            "created_at, status, district_id, tribute_id, parent_id, is_active_member) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NULL, ?)";
+
+    // Personnes importées sans parent : seule la ligne réflexive de person_ancestry
+    private static final String INSERT_ANCESTRY_SQL =
+            "INSERT INTO person_ancestry (ancestor_id, descendant_id, depth) VALUES (?, ?, 0)";
+
+    public ImportService(PersonRepository personRepository,
+                         ReferenceDataService referenceDataService,
+                         SequenceService sequenceService,
+                         ContributionService contributionService,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${app.imports.batch-size:500}") int batchSize,
+                         @Value("${app.imports.threads:2}") int threads,
+                         @Value("${app.imports.queue-capacity:10}") int queueCapacity,
+                         @Value("${app.imports.job-ttl-minutes:60}") long jobTtlMinutes) {
+        this.personRepository = personRepository;
+        this.referenceDataService = referenceDataService;
+        this.sequenceService = sequenceService;
+        this.contributionService = contributionService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+
+        // Pool dédié : un fichier volumineux n'occupe jamais un thread HTTP
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-");
+        executor.initialize();
+
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(jobTtlMinutes))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // START : copie le fichier (le multipart disparaît avec la requête) puis traite en arrière-plan
+    public ImportJobDto startPersonImport(MultipartFile file) {
+        String fileName = file.getOriginalFilename() != null ? file.getOriginalFilename() : "import";
+        String extension = fileName.toLowerCase(Locale.ROOT);
+        boolean xlsx = extension.endsWith(".xlsx");
+        if (!xlsx && !extension.endsWith(".csv")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only .csv and .xlsx files are supported");
+        }
+
+        Path path;
+        try {
+            path = Files.createTempFile("person-import-", xlsx ? ".xlsx" : ".csv");
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store uploaded file", e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), fileName);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> runPersonImport(job, path, xlsx));
+        } catch (TaskRejectedException e) {
+            jobs.invalidate(job.id);
+            deleteQuietly(path);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many imports in progress, retry later");
+        }
+        log.info("Queued person import {} for file {}", job.id, fileName);
+        return job.toDto();
+    }
+
+    // STATUS
+    public ImportJobDto getJob(String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found: " + jobId);
+        return job.toDto();
+    }
+
+    private void runPersonImport(ImportJob job, Path path, boolean xlsx) {
+        job.state = ImportState.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+
+        try (RowReader reader = xlsx ? new XlsxRowReader(path) : new CsvRowReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            // Références et clés de doublon préchargées une fois (aucune requête par ligne) ;
+            // caches de référence rechargés d'abord : un district / une tribu créé(e) sur une autre réplique doit être reconnu(e)
+            referenceDataService.evictDistricts();
+            referenceDataService.evictTributes();
+            ReferenceData<District> districts = referenceDataService.districts();
+            ReferenceData<Tribute> tributes = referenceDataService.tributes();
+            Set<String> knownKeys = new HashSet<>();
+            for (Object[] f : personRepository.findAllDuplicateKeyFields()) {
+                knownKeys.add(duplicateKey((String) f[0], (String) f[1], (LocalDate) f[2], (String) f[3],
+                        (Long) f[4], (Long) f[5], (MemberStatus) f[6]));
+            }
+
+            Map<String, Integer> columns = readHeader(reader.nextRow());
+            Year currentYear = Year.now();
+            List<ImportedPerson> batch = new ArrayList<>(batchSize);
+            long rowNumber = 1;
+            List<String> cells;
+            while ((cells = reader.nextRow()) != null) {
+                rowNumber++;
+                if (cells.stream().allMatch(String::isBlank)) continue;
+                job.processedRows.incrementAndGet();
+                try {
+                    ImportedPerson person = parseRow(cells, columns, districts, tributes, rowNumber, currentYear);
+                    if (!knownKeys.add(person.duplicateKey())) {
+                        job.duplicateRows.incrementAndGet();
+                        continue;
+                    }
+                    batch.add(person);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    job.fail(rowNumber, e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    flush(job, batch, currentYear, knownKeys);
+                    batch.clear();
+                }
+            }
+            flush(job, batch, currentYear, knownKeys);
+
+            job.state = ImportState.COMPLETED;
+            log.info("Import {} completed: {} rows, {} imported, {} duplicates, {} failed in {} ms", job.id,
+                    job.processedRows.get(), job.importedRows.get(), job.duplicateRows.get(), job.failedRows.get(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            job.state = ImportState.FAILED;
+            job.message = e.getMessage();
+            log.error("Import {} failed: {}", job.id, e.getMessage(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            deleteQuietly(path);
+        }
+    }
+
+    // LOT : séquences en 1 appel, INSERT JDBC par lots, cotisations via le pipeline de génération (1 transaction par lot).
+    // La clé d'une ligne finalement rejetée est rendue à knownKeys : une copie corrigée plus loin dans le fichier sera importée.
+    private void flush(ImportJob job, List<ImportedPerson> batch, Year year, Set<String> knownKeys) {
+        if (batch.isEmpty()) return;
+        try {
+            insert(job, batch, year);
+        } catch (RuntimeException e) {
+            // Le lot est annulé en bloc : on rejoue ligne par ligne pour n'écarter que les lignes fautives
+            log.warn("Import {} batch of {} rows rejected ({}), retrying row by row", job.id, batch.size(), e.getMessage());
+            for (ImportedPerson p : batch) {
+                try {
+                    insert(job, List.of(p), year);
+                } catch (RuntimeException rowError) {
+                    knownKeys.remove(p.duplicateKey());
+                    job.fail(p.rowNumber(), "Row rejected: " + rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(ImportJob job, List<ImportedPerson> batch, Year year) {
+        int contributions = transactionTemplate.execute(status -> {
+            long[] sequences = sequenceService.getNextSequences("mbr_seq", batch.size());
+            LocalDate today = LocalDate.now();
+            List<EligiblePersonRow> eligible = new ArrayList<>();
+            List<Object[]> args = new ArrayList<>(batch.size());
+            List<Object[]> ancestryArgs = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                ImportedPerson p = batch.get(i);
+                String id = "MBR" + String.format("%08d", sequences[i]);
+                args.add(new Object[]{id, sequences[i], p.firstName(), p.lastName(), Date.valueOf(p.birthDate()),
+                        p.gender().name(), p.imageUrl(), p.phoneNumber(), Date.valueOf(today), p.status().name(),
+                        p.districtId(), p.tributeId(), p.eligible()});
+                ancestryArgs.add(new Object[]{id, id});
+                if (p.eligible()) {
+                    eligible.add(new EligiblePersonRow(id, p.firstName(), p.lastName(), p.birthDate(), p.status(),
+                            true, p.districtId(), p.tributeId()));
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_PERSON_SQL, args);
+            jdbcTemplate.batchUpdate(INSERT_ANCESTRY_SQL, ancestryArgs);
+            return contributionService.createContributionsForPersons(year, eligible).size();
+        });
+        job.importedRows.addAndGet(batch.size());
+        job.contributionsCreated.addAndGet(contributions);
+    }
+
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) throw new IllegalArgumentException("Empty file");
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String field = HEADER_ALIASES.get(normalize(header.get(i)).replaceAll("[^a-z0-9]", ""));
+            if (field != null) columns.putIfAbsent(field, i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) throw new IllegalArgumentException("Missing columns: " + missing);
+        return columns;
+    }
+
+    private ImportedPerson parseRow(List<String> cells, Map<String, Integer> columns, ReferenceData<District> districts,
+                                    ReferenceData<Tribute> tributes, long rowNumber, Year year) {
+        String firstName = required(cells, columns, "firstName");
+        String lastName = required(cells, columns, "lastName");
+        LocalDate birthDate = parseDate(required(cells, columns, "birthDate"));
+        Gender gender = parseGender(required(cells, columns, "gender"));
+        String phoneNumber = required(cells, columns, "phoneNumber");
+        if (phoneNumber.length() > 13) throw new IllegalArgumentException("Phone number too long: " + phoneNumber);
+        MemberStatus status = parseStatus(required(cells, columns, "status"));
+
+        String districtName = required(cells, columns, "district");
+        Long districtId = districts.findIdByName(districtName).orElse(null);
+        if (districtId == null) throw new IllegalArgumentException("Unknown district: " + districtName);
+        String tributeName = required(cells, columns, "tribute");
+        Long tributeId = tributes.findIdByName(tributeName).orElse(null);
+        if (tributeId == null) throw new IllegalArgumentException("Unknown tribute: " + tributeName);
+
+        String imageUrl = cell(cells, columns, "imageUrl");
+        if (imageUrl.isEmpty()) {
+            imageUrl = "https://ui-avatars.com/api/?name=" + firstName.replace(' ', '+') + "+" + lastName.replace(' ', '+') + "&background=random";
+        }
+
+        return new ImportedPerson(rowNumber, firstName, lastName, birthDate, gender, imageUrl, phoneNumber, status,
+                districtId, tributeId, Person.isEligibleAtYear(birthDate, year));
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> columns, String field) {
+        Integer index = columns.get(field);
+        return index == null || index >= cells.size() ? "" : cells.get(index).trim();
+    }
+
+    private static String required(List<String> cells, Map<String, Integer> columns, String field) {
+        String value = cell(cells, columns, field);
+        if (value.isEmpty()) throw new IllegalArgumentException(field + " is required");
+        return value;
+    }
+
+    // ISO (2001-05-14), français (14/05/2001) ou numéro de série Excel (37025)
+    private static LocalDate parseDate(String value) {
+        if (value.matches("\\d+(\\.0+)?")) return EXCEL_EPOCH.plusDays(Long.parseLong(value.split("\\.")[0]));
+        if (value.contains("/")) return LocalDate.parse(value, FRENCH_DATE);
+        return LocalDate.parse(value.length() > 10 ? value.substring(0, 10) : value);
+    }
+
+    private static Gender parseGender(String value) {
+        return switch (normalize(value)) {
+            case "male", "m", "h", "homme" -> Gender.MALE;
+            case "female", "f", "femme" -> Gender.FEMALE;
+            default -> throw new IllegalArgumentException("Invalid gender: " + value);
+        };
+    }
+
+    private static MemberStatus parseStatus(String value) {
+        return switch (normalize(value)) {
+            case "worker", "travailleur" -> MemberStatus.WORKER;
+            case "student", "etudiant" -> MemberStatus.STUDENT;
+            default -> throw new IllegalArgumentException("Invalid status: " + value);
+        };
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Mêmes champs que PersonRepository.hasDuplicateByKeyFields
+    private static String duplicateKey(String firstName, String lastName, LocalDate birthDate, String phoneNumber,
+                                       Long districtId, Long tributeId, MemberStatus status) {
+        return String.join("\u0001", firstName, lastName, String.valueOf(birthDate), phoneNumber,
+                String.valueOf(districtId), String.valueOf(tributeId), String.valueOf(status));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary import file {}", path);
+        }
+    }
+
+    private record ImportedPerson(long rowNumber, String firstName, String lastName, LocalDate birthDate, Gender gender,
+                                  String imageUrl, String phoneNumber, MemberStatus status, Long districtId,
+                                  Long tributeId, boolean eligible) {
+        String duplicateKey() {
+            return ImportService.duplicateKey(firstName, lastName, birthDate, phoneNumber, districtId, tributeId, status);
+        }
+    }
+
+    // État mutable d'un import, partagé entre le thread d'import et les lectures de statut
+    private static final class ImportJob {
+        private final String id;
+        private final String fileName;
+        private volatile ImportState state = ImportState.PENDING;
+        private volatile String message;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private final AtomicLong processedRows = new AtomicLong();
+        private final AtomicLong importedRows = new AtomicLong();
+        private final AtomicLong duplicateRows = new AtomicLong();
+        private final AtomicLong failedRows = new AtomicLong();
+        private final AtomicLong contributionsCreated = new AtomicLong();
+        private final List<ImportRowErrorDto> errors = new ArrayList<>();
+
+        private ImportJob(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        private void fail(long row, String reason) {
+            failedRows.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new ImportRowErrorDto(row, reason));
+            }
+        }
+
+        private ImportJobDto toDto() {
+            List<ImportRowErrorDto> snapshot;
+            synchronized (errors) {
+                snapshot = new ArrayList<>(errors);
+            }
+            return new ImportJobDto(id, fileName, state, processedRows.get(), importedRows.get(), duplicateRows.get(),
+                    failedRows.get(), contributionsCreated.get(), snapshot, message, startedAt, finishedAt);
+        }
+    }
+}
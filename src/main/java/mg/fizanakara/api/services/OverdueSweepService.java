@@ -0,0 +1,147 @@
+package mg.fizanakara.api.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.stats.ContributionSnapshot;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// PASSAGE EN RETARD : OVERDUE n'était posé que lors d'un paiement ; balayage ensembliste planifié, une seule réplique à la fois
+@Service
+@Slf4j
+public class OverdueSweepService {
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsService statsService;
+    private final HouseholdService householdService;
+    private final Counter markedCounter;
+    private final int chunkSize;
+
+    // Clé du verrou consultatif (session) partagée par toutes les réplicas
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('contributions-overdue-sweep'))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('contributions-overdue-sweep'))";
+
+    // Même règle que updateContributionStatusAfterPayment : seule une cotisation sans aucun versement passe OVERDUE
+    // (PARTIAL reste PARTIAL). SKIP LOCKED : un paiement en cours sur une ligne ne bloque pas le lot.
+    private static final String SWEEP_SQL =
+            "UPDATE contributions c SET status = 'OVERDUE' FROM persons p " +
+            "WHERE p.id = c.member_id AND c.id IN (" +
+            "SELECT id FROM contributions WHERE due_date < ? AND status IN ('PENDING') AND paid_total = 0 " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING c.year, p.district_id, p.tribute_id, c.amount";
+
+    public OverdueSweepService(DataSource dataSource,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               StatsService statsService,
+                               HouseholdService householdService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.contributions.overdue-sweep.chunk-size:1000}") int chunkSize) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.statsService = statsService;
+        this.householdService = householdService;
+        this.chunkSize = chunkSize;
+        this.markedCounter = Counter.builder("contributions.overdue.marked")
+                .description("Contributions switched to OVERDUE by the scheduled sweep")
+                .register(meterRegistry);
+    }
+
+    // PLANIFIÉ (par défaut chaque nuit à 00:15, juste après le changement de jour)
+    @Scheduled(cron = "${app.contributions.overdue-sweep.cron:0 15 0 * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    // Verrou tenu sur une connexion dédiée pendant tout le balayage ; chaque lot est commité séparément (verrous de ligne courts)
+    public int sweep() {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection)) {
+                log.info("Overdue sweep skipped: already running on another instance");
+                return -1;
+            }
+            try {
+                return sweepChunks();
+            } finally {
+                unlock(lockConnection);
+            }
+        } catch (SQLException e) {
+            log.error("Overdue sweep failed to acquire its advisory lock", e);
+            return -1;
+        }
+    }
+
+    private int sweepChunks() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        int total = 0;
+        int marked;
+        do {
+            Integer chunk = transactionTemplate.execute(status -> markChunk(today));
+            marked = chunk != null ? chunk : 0;
+            total += marked;
+            markedCounter.increment(marked);
+        } while (marked == chunkSize);
+        log.info("Overdue sweep marked {} contributions in {} ms", total, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    // LOT : 1 UPDATE ensembliste ; les lignes renvoyées alimentent le delta de contribution_stats (PENDING → OVERDUE)
+    private int markChunk(LocalDate today) {
+        List<ContributionSnapshot> before = new ArrayList<>();
+        List<ContributionSnapshot> after = new ArrayList<>();
+        jdbcTemplate.query(SWEEP_SQL, ps -> {
+            ps.setDate(1, Date.valueOf(today));
+            ps.setInt(2, chunkSize);
+        }, rs -> {
+            int year = rs.getInt("year");
+            Long districtId = rs.getLong("district_id");
+            Long tributeId = rs.getLong("tribute_id");
+            BigDecimal amount = rs.getBigDecimal("amount");
+            before.add(new ContributionSnapshot(year, districtId, tributeId, ContributionStatus.PENDING, amount, BigDecimal.ZERO));
+            after.add(new ContributionSnapshot(year, districtId, tributeId, ContributionStatus.OVERDUE, amount, BigDecimal.ZERO));
+        });
+        statsService.applySnapshots(before, after);
+        householdService.evictAfterCommit(after.stream().map(ContributionSnapshot::getYear).collect(Collectors.toSet()));
+        return after.size();
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(TRY_LOCK_SQL); ResultSet rs = ps.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void unlock(Connection connection) {
+        try (PreparedStatement ps = connection.prepareStatement(UNLOCK_SQL)) {
+            ps.execute();
+        } catch (SQLException e) {
+            // Connexion poolée : on l'évince plutôt que de la rendre au pool avec le verrou encore tenu
+            log.warn("Could not release overdue sweep advisory lock, aborting connection", e);
+            try {
+                connection.abort(Runnable::run);
+            } catch (SQLException ignored) {
+                // déjà fermée
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@ import mg.fizanakara.api.models.Admins;
 import mg.fizanakara.api.models.PasswordResetToken;
 import mg.fizanakara.api.repository.AdminsRepository;
 import mg.fizanakara.api.repository.PasswordResetTokenRepository;
+import mg.fizanakara.api.security.CustomUserDetailsService;
+import mg.fizanakara.api.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -27,6 +29,8 @@ public class PasswordResetService {
     private final AdminsRepository adminsRepository;
     private final JavaMailSender emailSender;
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     private static final Logger log = LoggerFactory.getLogger(PasswordResetService.class);
 
@@ -108,7 +112,10 @@ public class PasswordResetService {
 
         Admins admin = prt.getAdmin();
         admin.setPassword(passwordEncoder.encode(newPassword));
+        admin.setTokenVersion(admin.getTokenVersion() + 1);
         adminsRepository.save(admin);
+        userDetailsService.evict(admin.getEmail());
+        tokenVersionRegistry.publish(admin.getEmail(), admin.getTokenVersion());
         tokenRepo.deleteByToken(token);
     }
 }
\ No newline at end of file
@@ -0,0 +1,240 @@
+package mg.fizanakara.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.components.TimeOrderedIdGenerator;
+import mg.fizanakara.api.dto.payments.PaymentBatchLineDto;
+import mg.fizanakara.api.dto.payments.PaymentBatchLineResultDto;
+import mg.fizanakara.api.dto.payments.PaymentBatchLineResultDto.Outcome;
+import mg.fizanakara.api.dto.payments.PaymentBatchResultDto;
+import mg.fizanakara.api.dto.stats.ContributionSnapshot;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+import mg.fizanakara.api.models.enums.PaymentStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// ENCAISSEMENT GROUPÉ (sessions de collecte terrain) : 1 verrou, 1 batch INSERT, 1 UPDATE ensembliste
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentBatchService {
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final StatsService statsService;
+    private final HouseholdService householdService;
+
+    @Value("${app.payments.batch-size:500}")
+    private int insertBatchSize;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
+    // ORDER BY id : même ordre de verrouillage pour toutes les sessions concurrentes (pas d'interblocage)
+    private static final String LOCK_SQL =
+            "SELECT c.id, c.year, c.amount, c.paid_total, c.status, p.district_id, p.tribute_id " +
+            "FROM contributions c JOIN persons p ON p.id = c.member_id " +
+            "WHERE c.id IN (:ids) ORDER BY c.id FOR UPDATE OF c";
+
+    private static final String REPLAY_SQL =
+            "SELECT idempotency_key, id, contribution_id, amount_paid FROM payments WHERE idempotency_key IN (:keys)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payments (id, amount_paid, payment_date, status, contribution_id, idempotency_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Même règle que ContributionService.updateContributionStatusAfterPayment, appliquée à toutes les cotisations d'un coup
+    private static final String APPLY_SQL =
+            "UPDATE contributions c SET paid_total = c.paid_total + d.paid, payment_count = c.payment_count + d.cnt, " +
+            "status = CASE WHEN c.paid_total + d.paid >= c.amount THEN 'PAID' " +
+            "WHEN c.paid_total + d.paid > 0 THEN 'PARTIAL' " +
+            "WHEN c.due_date < ? THEN 'OVERDUE' ELSE 'PENDING' END " +
+            "FROM unnest(?::varchar[], ?::numeric[], ?::int[]) AS d(id, paid, cnt) " +
+            "WHERE c.id = d.id " +
+            "RETURNING c.id, c.status, c.paid_total";
+
+    private record LockedContribution(String id, int year, BigDecimal amount, BigDecimal paidTotal,
+                                      ContributionStatus status, Long districtId, Long tributeId) {
+    }
+
+    private record ExistingPayment(String id, String contributionId, BigDecimal amountPaid) {
+    }
+
+    private record NewPayment(String id, BigDecimal amountPaid, LocalDateTime paymentDate, PaymentStatus status,
+                              String contributionId, String idempotencyKey) {
+    }
+
+    // INGEST (une transaction ; les lignes invalides sont rejetées individuellement, les autres passent)
+    @Transactional
+    public PaymentBatchResultDto ingest(List<PaymentBatchLineDto> lines) {
+        Map<String, LockedContribution> locked = lockContributions(lines.stream()
+                .map(PaymentBatchLineDto::getContributionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new)));
+        Map<String, ExistingPayment> replays = findByIdempotencyKeys(lines.stream()
+                .map(PaymentBatchLineDto::getIdempotencyKey)
+                .filter(key -> key != null && !key.isBlank() && key.length() <= MAX_IDEMPOTENCY_KEY_LENGTH)
+                .collect(Collectors.toSet()));
+
+        // VALIDATION EN MÉMOIRE : cumul courant par cotisation, lignes traitées dans l'ordre reçu
+        Map<String, BigDecimal> projectedTotals = new HashMap<>();
+        Set<String> batchKeys = new HashSet<>();
+        List<NewPayment> toInsert = new ArrayList<>();
+        List<PaymentBatchLineResultDto> results = new ArrayList<>(lines.size());
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < lines.size(); i++) {
+            PaymentBatchLineDto line = lines.get(i);
+            String contributionId = line.getContributionId();
+            String key = line.getIdempotencyKey();
+
+            if (contributionId == null || line.getAmountPaid() == null || line.getAmountPaid().signum() <= 0) {
+                results.add(rejected(i, contributionId, "INVALID_LINE"));
+                continue;
+            }
+            if (key != null && (key.isBlank() || key.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+                results.add(rejected(i, contributionId, "INVALID_IDEMPOTENCY_KEY"));
+                continue;
+            }
+            if (key != null && !batchKeys.add(key)) {
+                results.add(rejected(i, contributionId, "DUPLICATE_IDEMPOTENCY_KEY"));
+                continue;
+            }
+            if (key != null && replays.containsKey(key)) {
+                ExistingPayment previous = replays.get(key);
+                if (previous.contributionId().equals(contributionId) && previous.amountPaid().compareTo(line.getAmountPaid()) == 0) {
+                    results.add(new PaymentBatchLineResultDto(i, contributionId, Outcome.REPLAYED, previous.id(), null));
+                } else {
+                    results.add(rejected(i, contributionId, "IDEMPOTENCY_KEY_MISMATCH"));
+                }
+                continue;
+            }
+
+            LockedContribution contribution = locked.get(contributionId);
+            if (contribution == null) {
+                results.add(rejected(i, contributionId, "CONTRIBUTION_NOT_FOUND"));
+                continue;
+            }
+            BigDecimal projected = projectedTotals.getOrDefault(contributionId, contribution.paidTotal()).add(line.getAmountPaid());
+            if (projected.compareTo(contribution.amount()) > 0) {
+                results.add(rejected(i, contributionId, "OVERPAYMENT"));
+                continue;
+            }
+            projectedTotals.put(contributionId, projected);
+
+            NewPayment payment = new NewPayment(TimeOrderedIdGenerator.next("PAY"), line.getAmountPaid(),
+                    line.getPaymentDate() != null ? line.getPaymentDate() : now,
+                    line.getStatus() != null ? line.getStatus() : PaymentStatus.COMPLETED,
+                    contributionId, key);
+            toInsert.add(payment);
+            results.add(new PaymentBatchLineResultDto(i, contributionId, Outcome.ACCEPTED, payment.id(), null));
+        }
+
+        insertPayments(toInsert);
+        applyBalances(toInsert, locked);
+
+        int accepted = (int) results.stream().filter(r -> r.getOutcome() != Outcome.REJECTED).count();
+        log.info("Payment batch: {} lines, {} inserted, {} replayed, {} rejected", lines.size(), toInsert.size(),
+                accepted - toInsert.size(), lines.size() - accepted);
+        return new PaymentBatchResultDto(lines.size(), accepted, lines.size() - accepted, results);
+    }
+
+    // VERROU : toutes les cotisations touchées en une requête (FOR UPDATE OF c : les personnes ne sont pas verrouillées)
+    private Map<String, LockedContribution> lockContributions(Set<String> contributionIds) {
+        Map<String, LockedContribution> locked = new HashMap<>();
+        if (contributionIds.isEmpty()) return locked;
+        namedJdbcTemplate.query(LOCK_SQL, Map.of("ids", contributionIds), rs -> {
+            locked.put(rs.getString("id"), new LockedContribution(rs.getString("id"), rs.getInt("year"),
+                    rs.getBigDecimal("amount"), rs.getBigDecimal("paid_total"),
+                    ContributionStatus.valueOf(rs.getString("status")),
+                    rs.getLong("district_id"), rs.getLong("tribute_id")));
+        });
+        return locked;
+    }
+
+    // Relu APRÈS le verrou : un renvoi concurrent de la même session voit les paiements déjà validés
+    private Map<String, ExistingPayment> findByIdempotencyKeys(Set<String> keys) {
+        Map<String, ExistingPayment> existing = new HashMap<>();
+        if (keys.isEmpty()) return existing;
+        namedJdbcTemplate.query(REPLAY_SQL, Map.of("keys", keys), rs -> {
+            existing.put(rs.getString("idempotency_key"), new ExistingPayment(rs.getString("id"),
+                    rs.getString("contribution_id"), rs.getBigDecimal("amount_paid")));
+        });
+        return existing;
+    }
+
+    private void insertPayments(List<NewPayment> payments) {
+        if (payments.isEmpty()) return;
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, payments, insertBatchSize, (ps, payment) -> {
+                ps.setString(1, payment.id());
+                ps.setBigDecimal(2, payment.amountPaid());
+                ps.setTimestamp(3, Timestamp.valueOf(payment.paymentDate()));
+                ps.setString(4, payment.status().name());
+                ps.setString(5, payment.contributionId());
+                ps.setString(6, payment.idempotencyKey());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Clé déjà prise par un encaissement unitaire concurrent (index unique) : la session entière est rejouable
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency-Key already in use by a concurrent payment");
+        }
+    }
+
+    // SOLDES + STATUTS : un seul UPDATE pour toutes les cotisations touchées, puis delta des agrégats
+    private void applyBalances(List<NewPayment> payments, Map<String, LockedContribution> locked) {
+        if (payments.isEmpty()) return;
+        Map<String, BigDecimal> paidByContribution = new LinkedHashMap<>();
+        Map<String, Integer> countByContribution = new HashMap<>();
+        for (NewPayment payment : payments) {
+            paidByContribution.merge(payment.contributionId(), payment.amountPaid(), BigDecimal::add);
+            countByContribution.merge(payment.contributionId(), 1, Integer::sum);
+        }
+        String[] ids = paidByContribution.keySet().toArray(String[]::new);
+        BigDecimal[] paid = paidByContribution.values().toArray(BigDecimal[]::new);
+        Integer[] counts = paidByContribution.keySet().stream().map(countByContribution::get).toArray(Integer[]::new);
+
+        List<ContributionSnapshot> before = new ArrayList<>(ids.length);
+        List<ContributionSnapshot> after = new ArrayList<>(ids.length);
+        jdbcTemplate.query(APPLY_SQL, ps -> {
+            ps.setDate(1, Date.valueOf(LocalDate.now()));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", ids));
+            ps.setArray(3, ps.getConnection().createArrayOf("numeric", paid));
+            ps.setArray(4, ps.getConnection().createArrayOf("integer", counts));
+        }, rs -> {
+            LockedContribution previous = locked.get(rs.getString("id"));
+            before.add(snapshot(previous, previous.status(), previous.paidTotal()));
+            after.add(snapshot(previous, ContributionStatus.valueOf(rs.getString("status")), rs.getBigDecimal("paid_total")));
+        });
+        statsService.applySnapshots(before, after);
+        householdService.evictAfterCommit(after.stream().map(ContributionSnapshot::getYear).collect(Collectors.toSet()));
+    }
+
+    private ContributionSnapshot snapshot(LockedContribution contribution, ContributionStatus status, BigDecimal paid) {
+        return new ContributionSnapshot(contribution.year(), contribution.districtId(), contribution.tributeId(),
+                status, contribution.amount(), paid);
+    }
+
+    private PaymentBatchLineResultDto rejected(int index, String contributionId, String reason) {
+        return new PaymentBatchLineResultDto(index, contributionId, Outcome.REJECTED, null, reason);
+    }
+}
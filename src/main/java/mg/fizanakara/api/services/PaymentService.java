@@ -11,6 +11,8 @@ import mg.fizanakara.api.models.Payment;
 import mg.fizanakara.api.models.enums.PaymentStatus;
 import mg.fizanakara.api.repository.ContributionRepository;
 import mg.fizanakara.api.repository.PaymentRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +23,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +34,8 @@ public class PaymentService {
     private final ContributionRepository contributionRepository;
     private final ContributionService contributionService;
 
+    private static final String IDEMPOTENCY_KEY_INDEX = "uk_payments_idempotency_key";  // voir Payment
+
     // GET BY CONTRIBUTION ID
     @Transactional(readOnly = true)
     public List<PaymentResponseDto> getPaymentsByContributionId(String contributionId) {
@@ -40,54 +45,68 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
-    // CREATE
+    // CREATE (verrou sur la cotisation : deux encaissements simultanés ne peuvent plus dépasser le montant dû)
     @Transactional
-    public PaymentResponseDto createPayment(PaymentDto dto) {
+    public PaymentResponseDto createPayment(PaymentDto dto, String idempotencyKey) {
         log.info("Creating payment for contribution ID: {} amount: {}", dto.getContributionId(), dto.getAmountPaid());
 
-        Contribution contribution = contributionRepository.findById(dto.getContributionId())
+        Contribution contribution = contributionRepository.findByIdForUpdate(dto.getContributionId())
                 .orElseThrow(() -> new ContributionNotFoundException("Contribution not found with ID: " + dto.getContributionId()));
 
-        BigDecimal currentTotalPaid = paymentRepository.getTotalPaidByContributionId(dto.getContributionId());
-        if (currentTotalPaid == null) currentTotalPaid = BigDecimal.ZERO;
-        BigDecimal projectedTotal = currentTotalPaid.add(dto.getAmountPaid());
-
-        if (projectedTotal.compareTo(contribution.getAmount()) > 0) {
-            BigDecimal surplus = projectedTotal.subtract(contribution.getAmount());
-            log.warn("Overpayment blocked for contribution {}: projected total {} > amount {} (surplus: {})",
-                    dto.getContributionId(), projectedTotal, contribution.getAmount(), surplus);
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Map.of(
-                    "error", "Overpaid detected",
-                    "message", String.format("Amount total project (%s) overwrought the contribution (%s). excess : %s AR",
-                            projectedTotal, contribution.getAmount(), surplus),
-                    "contributionId", dto.getContributionId(),
-                    "amountPaid", dto.getAmountPaid()
-            ).toString());
+        // Renvoi client : relu APRÈS le verrou, donc un doublon concurrent voit le paiement déjà validé
+        if (idempotencyKey != null) {
+            Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                Payment replayed = existing.get();
+                if (!replayed.getContribution().getId().equals(dto.getContributionId())
+                        || replayed.getAmountPaid().compareTo(dto.getAmountPaid()) != 0) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                            "Idempotency-Key already used for a different payment: " + idempotencyKey);
+                }
+                log.info("Idempotent replay of payment {} (key {})", replayed.getId(), idempotencyKey);
+                return mapToResponseDto(replayed);
+            }
         }
 
+        checkOverpayment(contribution, contribution.getPaidTotal().add(dto.getAmountPaid()), dto.getAmountPaid());
+
         Payment payment = Payment.builder()
                 .amountPaid(dto.getAmountPaid())
                 .paymentDate(dto.getPaymentDate() != null ? dto.getPaymentDate() : LocalDateTime.now())
                 .status(dto.getStatus() != null ? dto.getStatus() : PaymentStatus.COMPLETED)
                 .contribution(contribution)
+                .idempotencyKey(idempotencyKey)
                 .build();
 
         payment.setId(payment.generatedCustomId());
 
-        Payment saved = paymentRepository.save(payment);
+        Payment saved;
+        try {
+            saved = paymentRepository.saveAndFlush(payment);
+        } catch (DataIntegrityViolationException e) {
+            // Même clé envoyée en parallèle pour une autre cotisation (index unique) ; toute autre violation remonte telle quelle
+            if (idempotencyKey == null || !IDEMPOTENCY_KEY_INDEX.equalsIgnoreCase(violatedConstraint(e))) throw e;
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Idempotency-Key already in use: " + idempotencyKey);
+        }
 
-        contributionService.updateContributionStatusAfterPayment(dto.getContributionId());
+        contributionService.updateContributionStatusAfterPayment(dto.getContributionId(), saved.getAmountPaid(), 1);
 
         return mapToResponseDto(saved);
     }
 
-    // UPDATE
+    // UPDATE (cotisation verrouillée puis paiement relu sous verrou : le delta appliqué au solde est exact)
     @Transactional
     public PaymentResponseDto updatePayment(String id, PaymentDto dto) {
-        Payment payment = paymentRepository.findById(id)
+        Contribution contribution = lockContributionOfPayment(id);
+        Payment payment = paymentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new PaymentNotFoundException("Payment not found with ID: " + id));
 
-        if (dto.getAmountPaid() != null) payment.setAmountPaid(dto.getAmountPaid());
+        BigDecimal previousAmount = payment.getAmountPaid();
+        if (dto.getAmountPaid() != null) {
+            BigDecimal delta = dto.getAmountPaid().subtract(previousAmount);
+            checkOverpayment(contribution, contribution.getPaidTotal().add(delta), dto.getAmountPaid());
+            payment.setAmountPaid(dto.getAmountPaid());
+        }
         if (dto.getPaymentDate() != null) payment.setPaymentDate(dto.getPaymentDate());
         if (dto.getStatus() != null) payment.setStatus(dto.getStatus());
 
@@ -95,7 +114,8 @@ public class PaymentService {
 
         Payment updated = paymentRepository.save(payment);
 
-        contributionService.updateContributionStatusAfterPayment(updated.getContribution().getId());
+        contributionService.updateContributionStatusAfterPayment(contribution.getId(),
+                updated.getAmountPaid().subtract(previousAmount), 0);
 
         return mapToResponseDto(updated);
     }
@@ -103,12 +123,45 @@ public class PaymentService {
     // DELETE
     @Transactional
     public void deletePayment(String id) {
-        Payment payment = paymentRepository.findById(id)
+        Contribution contribution = lockContributionOfPayment(id);
+        Payment payment = paymentRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new PaymentNotFoundException("Payment not found with ID: " + id));
         log.info("Deleting payment ID: {}", id);
         paymentRepository.delete(payment);
 
-        contributionService.updateContributionStatusAfterPayment(payment.getContribution().getId());
+        contributionService.updateContributionStatusAfterPayment(contribution.getId(),
+                payment.getAmountPaid().negate(), -1);
+    }
+
+    // Ordre de verrouillage unique (cotisation puis paiement) pour create / update / delete : pas d'interblocage
+    // Nom de la contrainte violée, tel que remonté par Hibernate (null si inconnu)
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) return violation.getConstraintName();
+        }
+        return null;
+    }
+
+    private Contribution lockContributionOfPayment(String paymentId) {
+        String contributionId = paymentRepository.findContributionIdById(paymentId)
+                .orElseThrow(() -> new PaymentNotFoundException("Payment not found with ID: " + paymentId));
+        return contributionRepository.findByIdForUpdate(contributionId)
+                .orElseThrow(() -> new ContributionNotFoundException("Contribution not found with ID: " + contributionId));
+    }
+
+    private void checkOverpayment(Contribution contribution, BigDecimal projectedTotal, BigDecimal amountPaid) {
+        if (projectedTotal.compareTo(contribution.getAmount()) > 0) {
+            BigDecimal surplus = projectedTotal.subtract(contribution.getAmount());
+            log.warn("Overpayment blocked for contribution {}: projected total {} > amount {} (surplus: {})",
+                    contribution.getId(), projectedTotal, contribution.getAmount(), surplus);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, Map.of(
+                    "error", "Overpaid detected",
+                    "message", String.format("Amount total project (%s) overwrought the contribution (%s). excess : %s AR",
+                            projectedTotal, contribution.getAmount(), surplus),
+                    "contributionId", contribution.getId(),
+                    "amountPaid", amountPaid
+            ).toString());
+        }
     }
 
     // DTO
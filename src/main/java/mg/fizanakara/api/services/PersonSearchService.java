@@ -0,0 +1,90 @@
+package mg.fizanakara.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.person.PersonSearchHitDto;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PersonSearchService {
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MIN_PHONE_DIGITS = 3;
+
+    // Nom complet indexé (même expression que idx_persons_full_name_trgm / _tsv, sinon l'index est ignoré)
+    private static final String FULL_NAME = "lower(p.first_name || ' ' || p.last_name)";
+    private static final String FULL_NAME_TSV = "to_tsvector('simple', p.first_name || ' ' || p.last_name)";
+
+    // Trigrammes (<% : tolérance aux fautes), tsquery préfixe (saisie partielle), sous-chaîne de téléphone
+    private static final String SEARCH_SQL =
+            "SELECT p.id, p.first_name, p.last_name, p.phone_number, p.status, p.is_active_member, " +
+            "d.name AS district_name, t.name AS tribute_name, " +
+            "GREATEST(word_similarity(:term, " + FULL_NAME + "), " +
+            "ts_rank(" + FULL_NAME_TSV + ", to_tsquery('simple', :prefixQuery)), " +
+            "CASE WHEN :phone <> '' AND p.phone_number LIKE :phonePattern THEN 1 ELSE 0 END) AS score, " +
+            "COUNT(*) OVER () AS total " +
+            "FROM persons p JOIN districts d ON d.id = p.district_id JOIN tributes t ON t.id = p.tribute_id " +
+            "WHERE :term <% " + FULL_NAME + " " +
+            "OR " + FULL_NAME_TSV + " @@ to_tsquery('simple', :prefixQuery) " +
+            "OR (:phone <> '' AND p.phone_number LIKE :phonePattern) " +
+            "ORDER BY score DESC, p.last_name, p.first_name, p.id " +
+            "LIMIT :limit OFFSET :offset";
+
+    // SEARCH (classé, paginé ; le tri du Pageable est ignoré au profit du score)
+    @Transactional(readOnly = true)
+    public Page<PersonSearchHitDto> search(String query, Pageable pageable) {
+        Pageable page = PageRequest.of(pageable.getPageNumber(), Math.max(1, Math.min(pageable.getPageSize(), MAX_PAGE_SIZE)));
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        List<String> tokens = Arrays.stream(term.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+        if (tokens.isEmpty()) return Page.empty(page);
+
+        String digits = term.replaceAll("\\D", "");
+        String phone = digits.length() >= MIN_PHONE_DIGITS ? digits : "";
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("term", term)
+                .addValue("prefixQuery", tokens.stream().map(token -> token + ":*").collect(Collectors.joining(" & ")))
+                .addValue("phone", phone)
+                .addValue("phonePattern", "%" + phone + "%")
+                .addValue("limit", page.getPageSize())
+                .addValue("offset", page.getOffset());
+
+        long[] total = {0};
+        List<PersonSearchHitDto> hits = new ArrayList<>(page.getPageSize());
+        namedJdbcTemplate.query(SEARCH_SQL, params, rs -> {
+            total[0] = rs.getLong("total");
+            hits.add(new PersonSearchHitDto(
+                    rs.getString("id"),
+                    rs.getString("first_name"),
+                    rs.getString("last_name"),
+                    rs.getString("phone_number"),
+                    MemberStatus.valueOf(rs.getString("status")),
+                    rs.getBoolean("is_active_member"),
+                    rs.getString("district_name"),
+                    rs.getString("tribute_name"),
+                    rs.getDouble("score")));
+        });
+
+        log.info("Search '{}' returned {} of {} matches", term, hits.size(), total[0]);
+        return new PageImpl<>(hits, page, total[0]);
+    }
+}
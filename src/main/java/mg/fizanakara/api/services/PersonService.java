@@ -4,23 +4,44 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import mg.fizanakara.api.dto.contributions.ContributionResponseDto;
+import mg.fizanakara.api.dto.person.BulkOperationResultDto;
+import mg.fizanakara.api.dto.person.EligiblePersonRow;
 import mg.fizanakara.api.dto.person.PersonDto;
 import mg.fizanakara.api.dto.person.PersonResponseDto;
+import mg.fizanakara.api.dto.person.PersonSummaryDto;
 import mg.fizanakara.api.exceptions.PersonNotFoundException;
 import mg.fizanakara.api.models.District;
+import mg.fizanakara.api.models.JobWatermark;
 import mg.fizanakara.api.models.Person;
 import mg.fizanakara.api.models.Tribute;
+import mg.fizanakara.api.models.enums.Gender;
 import mg.fizanakara.api.models.enums.MemberStatus;
 import mg.fizanakara.api.repository.DistrictRepository;
+import mg.fizanakara.api.repository.JobWatermarkRepository;
+import mg.fizanakara.api.repository.PersonAncestryRepository;
 import mg.fizanakara.api.repository.PersonRepository;
 import mg.fizanakara.api.repository.TributeRepository;
 import mg.fizanakara.api.services.ContributionService;
+import mg.fizanakara.api.repository.ContributionRepository;
 import mg.fizanakara.api.services.SequenceService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,14 +53,25 @@ public class PersonService {
     private final TributeRepository tributeRepository;
     private final SequenceService sequenceService;
     private final ContributionService contributionService;
-
-    // GET ALL (unifié)
-    @Transactional 
-    public List<PersonResponseDto> getAllPersons() {
-        log.info("Retrieving all persons");
-        return personRepository.findAll().stream()
-                .map(this::mapToResponseDto)
-                .collect(Collectors.toList());
+    private final ContributionRepository contributionRepository;
+    private final StatsService statsService;
+    private final HouseholdService householdService;
+    private final JobWatermarkRepository jobWatermarkRepository;
+    private final PersonAncestryRepository personAncestryRepository;
+    private final ReferenceDataService referenceDataService;
+
+    // Taille des listes IN envoyées à PostgreSQL (les requêtes en masse sont découpées)
+    private static final int BULK_CHUNK_SIZE = 1000;
+    private static final String PROMOTION_JOB = "person-promotion";
+
+    // GET PAGE (projection plate + filtres ; bornes d'années converties en plage de dates indexable)
+    @Transactional
+    public Page<PersonSummaryDto> getPersonsPage(MemberStatus status, Gender gender, Long districtId, Long tributeId, Boolean active,
+                                                 Integer birthYearFrom, Integer birthYearTo, Pageable pageable) {
+        log.info("Retrieving persons page {} (size {})", pageable.getPageNumber(), pageable.getPageSize());
+        LocalDate bornFrom = birthYearFrom != null ? LocalDate.of(birthYearFrom, 1, 1) : null;
+        LocalDate bornBefore = birthYearTo != null ? LocalDate.of(birthYearTo + 1, 1, 1) : null;
+        return personRepository.findSummaries(status, gender, districtId, tributeId, active, bornFrom, bornBefore, pageable);
     }
 
     // GET BY ID
@@ -64,11 +96,9 @@ public class PersonService {
             throw new IllegalArgumentException("Person with these details already exists");
         }
 
-        // Find FKs
-        District district = districtRepository.findById(dto.getDistrictId())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid District ID: " + dto.getDistrictId()));
-        Tribute tribute = tributeRepository.findById(dto.getTributeId())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid Tribute ID: " + dto.getTributeId()));
+        // Find FKs (cache de référence : aucune requête)
+        District district = districtReference(dto.getDistrictId());
+        Tribute tribute = tributeReference(dto.getTributeId());
 
         Person parent = null;
         if (dto.getParentId() != null) {
@@ -101,6 +131,8 @@ public class PersonService {
         person.setCreatedAt(LocalDate.now());
 
         Person saved = personRepository.save(person);
+        // Table de fermeture : la nouvelle personne hérite des ancêtres de son parent
+        personAncestryRepository.insertPath(saved.getId(), parent != null ? parent.getId() : null);
 
         // Bidirectionnel si parent
         if (parent != null) {
@@ -147,7 +179,10 @@ public class PersonService {
         // Set champs si non null (comme avant)
         if (dto.getFirstName() != null) person.setFirstName(dto.getFirstName());
         if (dto.getLastName() != null) person.setLastName(dto.getLastName());
+        // Date de naissance corrigée sous le filigrane de promotion : le job incrémental ne la reverrait jamais
+        boolean birthDateChanged = dto.getBirthDate() != null && !dto.getBirthDate().equals(person.getBirthDate());
         if (dto.getBirthDate() != null) person.setBirthDate(dto.getBirthDate());
+        boolean becomesAdult = birthDateChanged && !person.isActiveMember() && person.isEligibleForContribution(Year.now());
         if (dto.getGender() != null) person.setGender(dto.getGender());
         if (dto.getImageUrl() != null) person.setImageUrl(dto.getImageUrl());
         if (dto.getPhoneNumber() != null) {
@@ -157,16 +192,14 @@ public class PersonService {
             person.setPhoneNumber(dto.getPhoneNumber());
         }
         if (dto.getStatus() != null) person.setStatus(dto.getStatus());
-        if (dto.getDistrictId() != null) {
-            District district = districtRepository.findById(dto.getDistrictId())
-                    .orElseThrow(() -> new IllegalArgumentException("Invalid District ID"));
-            person.setDistrict(district);
-        }
-        if (dto.getTributeId() != null) {
-            Tribute tribute = tributeRepository.findById(dto.getTributeId())
-                    .orElseThrow(() -> new IllegalArgumentException("Invalid Tribute ID"));
-            person.setTribute(tribute);
+        if (becomesAdult) {
+            person.setIsActiveMember(true);
+            if (dto.getStatus() == null) person.setStatus(MemberStatus.WORKER);  // Même défaut que promoteToActiveMember
         }
+        // Agrégats : la part du membre suit son nouveau district / tribu (avant toute écriture sur persons)
+        statsService.reassignMembers(List.of(id), dto.getDistrictId(), dto.getTributeId());
+        if (dto.getDistrictId() != null) person.setDistrict(districtReference(dto.getDistrictId()));
+        if (dto.getTributeId() != null) person.setTribute(tributeReference(dto.getTributeId()));
         // Pas de changement parentId (non modifiable via update, pour éviter boucles)
 
         // Duplicate check post-update
@@ -177,7 +210,11 @@ public class PersonService {
         }
 
         Person updated = personRepository.save(person);
-        log.info("Updated person ID {} successfully", id);
+        householdService.evictAllAfterCommit();  // nom / district d'un chef de foyer ou d'un membre
+        if (becomesAdult && !contributionRepository.hasDuplicateByMemberAndYear(id, Year.now())) {
+            contributionService.createSingleContributionForPerson(Year.now(), id);
+        }
+        log.info("Updated person ID {} successfully{}", id, becomesAdult ? " (promoted after birth date correction)" : "");
         return mapToResponseDto(updated);
     }
 
@@ -188,12 +225,164 @@ public class PersonService {
                 .orElseThrow(() -> new PersonNotFoundException("Person not found with ID: " + id));
         log.info("Deleting person with ID: {}", id);
         personRepository.delete(person);
+        householdService.evictAllAfterCommit();
+    }
+
+    // BULK DELETE : refus par ID si cotisations existantes ou enfants hors sélection (le delete unitaire les cascaderait)
+    @Transactional
+    public BulkOperationResultDto bulkDelete(List<String> ids) {
+        Set<String> requested = new LinkedHashSet<>(ids);
+        Map<String, String> failed = new LinkedHashMap<>();
+
+        Set<String> deletable = new HashSet<>();
+        Set<String> withContributions = new HashSet<>();
+        Map<String, List<String>> childrenByParent = new HashMap<>();
+        for (List<String> chunk : chunks(requested)) {
+            deletable.addAll(personRepository.findExistingIds(chunk));
+            withContributions.addAll(contributionRepository.findMemberIdsWithContributions(chunk));
+            for (Object[] link : personRepository.findChildLinks(chunk)) {
+                childrenByParent.computeIfAbsent((String) link[1], k -> new ArrayList<>()).add((String) link[0]);
+            }
+        }
+        for (String id : requested) {
+            if (!deletable.contains(id)) failed.put(id, "NOT_FOUND");
+            else if (withContributions.contains(id)) failed.put(id, "HAS_CONTRIBUTIONS");
+        }
+        deletable.removeAll(failed.keySet());
+
+        // Point fixe : un parent n'est supprimable que si tous ses enfants le sont aussi
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, List<String>> entry : childrenByParent.entrySet()) {
+                if (deletable.contains(entry.getKey()) && !deletable.containsAll(entry.getValue())) {
+                    deletable.remove(entry.getKey());
+                    failed.put(entry.getKey(), "HAS_CHILDREN");
+                    changed = true;
+                }
+            }
+        }
+
+        List<String> succeeded = requested.stream().filter(deletable::contains).collect(Collectors.toList());
+        // Liens parent coupés d'abord : un parent et son enfant peuvent tomber dans deux lots différents
+        List<List<String>> deleteChunks = chunks(succeeded);
+        deleteChunks.forEach(personRepository::detachFromParents);
+        int deleted = 0;
+        for (List<String> chunk : deleteChunks) {
+            deleted += personRepository.deleteAllByIds(chunk);
+        }
+        if (deleted > 0) householdService.evictAllAfterCommit();
+        log.info("Bulk deleted {} persons ({} rejected)", deleted, failed.size());
+        return new BulkOperationResultDto(requested.size(), succeeded, failed);
+    }
+
+    // BULK PROMOTE : 1 UPDATE par lot + cotisations de l'année via le pipeline de génération en masse
+    @Transactional
+    public BulkOperationResultDto bulkPromote(List<String> ids) {
+        Set<String> requested = new LinkedHashSet<>(ids);
+        Map<String, String> failed = new LinkedHashMap<>();
+        Year currentYear = Year.now();
+
+        Map<String, EligiblePersonRow> rows = new HashMap<>();
+        for (List<String> chunk : chunks(requested)) {
+            personRepository.findEligiblePersonRowsByIds(chunk).forEach(row -> rows.put(row.getId(), row));
+        }
+
+        List<String> succeeded = new ArrayList<>();
+        List<EligiblePersonRow> promoted = new ArrayList<>();
+        for (String id : requested) {
+            EligiblePersonRow row = rows.get(id);
+            if (row == null) failed.put(id, "NOT_FOUND");
+            else if (row.isActiveMember()) failed.put(id, "ALREADY_ACTIVE");
+            else if (!calculateEligibilityFromDto(row.getBirthDate(), currentYear)) failed.put(id, "NOT_ELIGIBLE");
+            else {
+                succeeded.add(id);
+                promoted.add(new EligiblePersonRow(row.getId(), row.getFirstName(), row.getLastName(), row.getBirthDate(),
+                        MemberStatus.WORKER, true, row.getDistrictId(), row.getTributeId()));
+            }
+        }
+
+        for (List<String> chunk : chunks(succeeded)) {
+            personRepository.promoteAll(chunk, MemberStatus.WORKER);
+        }
+        contributionService.createContributionsForPersons(currentYear, promoted);
+
+        log.info("Bulk promoted {} persons ({} rejected)", succeeded.size(), failed.size());
+        return new BulkOperationResultDto(requested.size(), succeeded, failed);
+    }
+
+    // PROMOTION AUTOMATIQUE : mineurs atteignant 18 ans dans l'année (même règle que calculateEligibilityFromDto,
+    // soit birth_date < 1er janvier de (année - 17)). Seule la tranche de naissances devenue éligible depuis
+    // la dernière exécution est lue (watermark), via une plage indexée sur birth_date.
+    @Transactional
+    @Scheduled(cron = "${app.persons.promotion-cron:0 0 1 * * *}")
+    public BulkOperationResultDto promoteNewAdults() {
+        jobWatermarkRepository.ensureExists(PROMOTION_JOB);
+        JobWatermark watermark = jobWatermarkRepository.findByNameForUpdate(PROMOTION_JOB)
+                .orElseThrow(() -> new IllegalStateException("Missing watermark " + PROMOTION_JOB));
+
+        Year currentYear = Year.now();
+        LocalDate bornBefore = LocalDate.of(currentYear.getValue() - 17, 1, 1);
+        LocalDate bornFrom = watermark.getWatermark();
+        if (bornFrom != null && !bornFrom.isBefore(bornBefore)) {
+            log.debug("No new adults since last promotion run (watermark {})", bornFrom);
+            return new BulkOperationResultDto(0, List.of(), Map.of());
+        }
+
+        List<EligiblePersonRow> promoted = new ArrayList<>();
+        for (EligiblePersonRow row : personRepository.findInactiveRowsBornBetween(bornFrom, bornBefore)) {
+            promoted.add(new EligiblePersonRow(row.getId(), row.getFirstName(), row.getLastName(), row.getBirthDate(),
+                    MemberStatus.WORKER, true, row.getDistrictId(), row.getTributeId()));
+        }
+        List<String> ids = promoted.stream().map(EligiblePersonRow::getId).collect(Collectors.toList());
+        for (List<String> chunk : chunks(ids)) {
+            personRepository.promoteAll(chunk, MemberStatus.WORKER);
+        }
+        contributionService.createContributionsForPersons(currentYear, promoted);
+
+        watermark.setWatermark(bornBefore);
+        watermark.setUpdatedAt(LocalDateTime.now());
+        log.info("Promoted {} new adults (born in [{}, {}))", ids.size(), bornFrom, bornBefore);
+        return new BulkOperationResultDto(ids.size(), ids, Map.of());
+    }
+
+    // BULK MOVE : changement de district et/ou tribu en UPDATE ensemblistes
+    @Transactional
+    public BulkOperationResultDto bulkMove(List<String> ids, Long districtId, Long tributeId) {
+        if (districtId == null && tributeId == null) {
+            throw new IllegalArgumentException("districtId or tributeId is required");
+        }
+        District district = districtId == null ? null : districtReference(districtId);
+        Tribute tribute = tributeId == null ? null : tributeReference(tributeId);
+
+        Set<String> requested = new LinkedHashSet<>(ids);
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunks(requested)) {
+            existing.addAll(personRepository.findExistingIds(chunk));
+        }
+
+        Map<String, String> failed = new LinkedHashMap<>();
+        List<String> succeeded = new ArrayList<>();
+        for (String id : requested) {
+            if (existing.contains(id)) succeeded.add(id);
+            else failed.put(id, "NOT_FOUND");
+        }
+
+        for (List<String> chunk : chunks(succeeded)) {
+            statsService.reassignMembers(chunk, districtId, tributeId);
+            if (district != null) personRepository.moveAllToDistrict(chunk, district);
+            if (tribute != null) personRepository.moveAllToTribute(chunk, tribute);
+        }
+        if (!succeeded.isEmpty()) householdService.evictAllAfterCommit();
+        log.info("Bulk moved {} persons to district {} / tribute {}", succeeded.size(), districtId, tributeId);
+        return new BulkOperationResultDto(requested.size(), succeeded, failed);
     }
 
     // DELETE ALL
     @Transactional
     public void deleteAllPersons() {
         personRepository.deleteAll();
+        householdService.evictAllAfterCommit();
         log.info("All persons deleted");
     }
 
@@ -230,26 +419,58 @@ public class PersonService {
         dto.setStatus(person.getStatus());
         dto.setIsActiveMember(person.isActiveMember());  // ← FIX : setIsActiveMember maintenant OK avec @Data/@Setter
 
-        dto.setDistrictId(person.getDistrict().getId());
-        dto.setDistrictName(person.getDistrict().getName());
-        dto.setTributeId(person.getTribute().getId());
-        dto.setTributeName(person.getTribute().getName());
+        // Noms lus dans le cache de référence (l'ID d'un proxy ne déclenche pas de chargement)
+        Long districtId = person.getDistrict().getId();
+        Long tributeId = person.getTribute().getId();
+        dto.setDistrictId(districtId);
+        dto.setDistrictName(Objects.requireNonNullElseGet(referenceDataService.districts().nameOf(districtId),
+                () -> person.getDistrict().getName()));
+        dto.setTributeId(tributeId);
+        dto.setTributeName(Objects.requireNonNullElseGet(referenceDataService.tributes().nameOf(tributeId),
+                () -> person.getTribute().getName()));
 
         // Hiérarchie
         dto.setParentId(person.getParent() != null ? person.getParent().getId() : null);
         dto.setParentName(person.getParent() != null ? person.getParent().getFirstName() + " " + person.getParent().getLastName() : null);
         dto.setChildrenCount(person.getChildren().size());
-        dto.setChildren(person.getChildren());
 
         return dto;
     }
 
+    // Références validées sur le cache, puis proxy JPA : seule la clé étrangère est écrite, sans SELECT
+    // Absent du cache local : l'ID a pu être créé sur une autre réplique → confirmé en base, puis cache rechargé
+    private District districtReference(Long id) {
+        if (!referenceDataService.districts().contains(id)) {
+            if (id == null || !districtRepository.existsById(id)) {
+                throw new IllegalArgumentException("Invalid District ID: " + id);
+            }
+            referenceDataService.evictDistricts();
+        }
+        return districtRepository.getReferenceById(id);
+    }
+
+    private Tribute tributeReference(Long id) {
+        if (!referenceDataService.tributes().contains(id)) {
+            if (id == null || !tributeRepository.existsById(id)) {
+                throw new IllegalArgumentException("Invalid Tribute ID: " + id);
+            }
+            referenceDataService.evictTributes();
+        }
+        return tributeRepository.getReferenceById(id);
+    }
+
     // ← AJOUT : Helper privé pour calcul éligibilité (basé sur birthDate du DTO, avant build)
     private boolean calculateEligibilityFromDto(LocalDate birthDate, Year year) {
-        LocalDate endOfYear = LocalDate.of(year.getValue(), 12, 31);
-        int age = endOfYear.getYear() - birthDate.getYear() -
-                (endOfYear.isBefore(birthDate.withDayOfYear(birthDate.getDayOfYear())) ? 1 : 0);
-        return age >= 18;
+        return Person.isEligibleAtYear(birthDate, year);
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(all.subList(i, Math.min(i + BULK_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
     }
 
     // Private helper pour findEntityById (comme avant)
@@ -0,0 +1,49 @@
+package mg.fizanakara.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.reference.ReferenceData;
+import mg.fizanakara.api.models.District;
+import mg.fizanakara.api.models.Tribute;
+import mg.fizanakara.api.repository.DistrictRepository;
+import mg.fizanakara.api.repository.TributeRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+// Cache des tables de référence (quelques modifications par an) : 1 entrée par table, vidée par DistrictService / TributeService.
+// Les entités en cache sont détachées et partagées : lecture seule (les écritures relisent via le repository).
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataService {
+    public static final String DISTRICTS = "districts";
+    public static final String TRIBUTES = "tributes";
+
+    private final DistrictRepository districtRepository;
+    private final TributeRepository tributeRepository;
+
+    @Cacheable(cacheNames = DISTRICTS, key = "'all'", sync = true)
+    public ReferenceData<District> districts() {
+        log.debug("Loading districts reference data");
+        return ReferenceData.of(districtRepository.findAll(Sort.by("id")), District::getId, District::getName);
+    }
+
+    @Cacheable(cacheNames = TRIBUTES, key = "'all'", sync = true)
+    public ReferenceData<Tribute> tributes() {
+        log.debug("Loading tributes reference data");
+        return ReferenceData.of(tributeRepository.findAll(Sort.by("id")), Tribute::getId, Tribute::getName);
+    }
+
+    // Éviction locale uniquement : une autre réplique peut avoir créé une entrée absente d'ici (voir PersonService, ImportService)
+    @CacheEvict(cacheNames = DISTRICTS, allEntries = true)
+    public void evictDistricts() {
+        log.debug("Districts reference data evicted");
+    }
+
+    @CacheEvict(cacheNames = TRIBUTES, allEntries = true)
+    public void evictTributes() {
+        log.debug("Tributes reference data evicted");
+    }
+}
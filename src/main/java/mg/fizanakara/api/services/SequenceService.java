@@ -1,30 +1,166 @@
 package mg.fizanakara.api.services;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Séquences PostgreSQL en mode "pooled" : chaque nextval() réserve un bloc de increment_by valeurs [v, v + increment)
+// pour ce nœud ; les valeurs sont ensuite distribuées depuis la mémoire (curseur lock-free par séquence).
 @Service
 public class SequenceService {
 
     private static final Logger log = LoggerFactory.getLogger(SequenceService.class);
 
-    @PersistenceContext
-    private EntityManager  em;
+    // Seules ces séquences peuvent être interrogées (le nom n'est jamais concaténé sans validation)
+    private static final Set<String> ALLOWED_SEQUENCES = Set.of("mbr_seq", "admin_seq");
+    private static final Pattern CONTRIBUTION_SEQUENCE = Pattern.compile("contribution_seq_\\d{4}");
+    // undefined_table : séquence supprimée (ou jamais commitée) alors que le nœud en garde des blocs
+    private static final String UNDEFINED_TABLE = "42P01";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentHashMap<String, SequencePool> pools = new ConcurrentHashMap<>();
+
+    public SequenceService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
 
-    @Transactional
     public Long getNextSequence(String seqName) {
         try {
-            Long nextVal = ((Number) em.createNativeQuery("SELECT nextval('" + seqName + "')").getSingleResult()).longValue();
+            long nextVal = pool(seqName).next();
             log.debug("Sequence {} generated : {}", seqName, nextVal);
             return nextVal;
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
+            resetIfMissing(seqName, e);
             log.error("Error generation sequence {} : {}", seqName, e.getMessage());
             throw new RuntimeException("Impossible to generate sequence " + seqName, e);
         }
     }
-}
 
+    // Pour les traitements en masse : tous les blocs manquants en 1 seul aller-retour
+    public long[] getNextSequences(String seqName, int count) {
+        try {
+            return pool(seqName).next(count);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            resetIfMissing(seqName, e);
+            log.error("Error generation sequence {} ({} values) : {}", seqName, count, e.getMessage());
+            throw new RuntimeException("Impossible to generate sequence " + seqName, e);
+        }
+    }
+
+    // Oublie les blocs réservés d'une séquence : le prochain appel relit pg_sequences et repart d'un nextval
+    public void reset(String seqName) {
+        pools.remove(seqName);
+    }
+
+    public static boolean isMissingSequence(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MissingSequenceException) return true;
+            if (cause instanceof SQLException sql && UNDEFINED_TABLE.equals(sql.getSQLState())) return true;
+        }
+        return false;
+    }
+
+    private void resetIfMissing(String seqName, Exception e) {
+        if (isMissingSequence(e)) {
+            log.warn("Sequence {} no longer exists, dropping its cached blocks", seqName);
+            reset(seqName);
+        }
+    }
+
+    public static boolean isAllowed(String seqName) {
+        return seqName != null && (ALLOWED_SEQUENCES.contains(seqName) || CONTRIBUTION_SEQUENCE.matcher(seqName).matches());
+    }
+
+    private SequencePool pool(String seqName) {
+        if (!isAllowed(seqName)) {
+            throw new IllegalArgumentException("Unknown sequence : " + seqName);
+        }
+        return pools.computeIfAbsent(seqName, name -> {
+            List<Integer> increments = jdbcTemplate.queryForList(
+                    "SELECT CAST(increment_by AS INTEGER) FROM pg_sequences WHERE sequencename = ?", Integer.class, name);
+            if (increments.isEmpty()) {
+                throw new MissingSequenceException(name);
+            }
+            Integer increment = increments.get(0);
+            if (increment == null || increment < 1) {
+                throw new IllegalStateException("Sequence " + name + " not ascending");
+            }
+            log.info("Sequence pool ready for {} (block size {})", name, increment);
+            return new SequencePool(name, increment);
+        });
+    }
+
+    private static final class MissingSequenceException extends IllegalStateException {
+        private MissingSequenceException(String seqName) {
+            super("Sequence " + seqName + " not found");
+        }
+    }
+
+    // Bloc immuable [start, end) ; seul le curseur avance (getAndIncrement, sans verrou)
+    private record Block(AtomicLong cursor, long end) {
+        static final Block EMPTY = new Block(new AtomicLong(0), 0);
+    }
+
+    private final class SequencePool {
+        private final String seqName;
+        private final int increment;
+        private volatile Block block = Block.EMPTY;
+
+        private SequencePool(String seqName, int increment) {
+            this.seqName = seqName;
+            this.increment = increment;
+        }
+
+        long next() {
+            while (true) {
+                Block current = block;
+                long value = current.cursor().getAndIncrement();
+                if (value < current.end()) return value;
+                refill(current);
+            }
+        }
+
+        synchronized long[] next(int count) {
+            long[] values = new long[count];
+            int i = 0;
+            Block current = block;
+            while (i < count) {
+                long value = current.cursor().getAndIncrement();
+                if (value >= current.end()) break;
+                values[i++] = value;
+            }
+            if (i == count) return values;
+
+            int missingBlocks = (count - i + increment - 1) / increment;
+            List<Long> starts = jdbcTemplate.queryForList(
+                    "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)", Long.class, seqName, missingBlocks);
+            for (Long start : starts) {
+                long value = start;
+                long end = start + increment;
+                while (i < count && value < end) values[i++] = value++;
+                current = new Block(new AtomicLong(value), end);
+            }
+            block = current;  // Le reste du dernier bloc sert aux appels suivants
+            return values;
+        }
+
+        // Un seul thread recharge ; les autres reprennent le nouveau bloc
+        private synchronized void refill(Block exhausted) {
+            if (block != exhausted) return;
+            Long start = jdbcTemplate.queryForObject("SELECT nextval(CAST(? AS regclass))", Long.class, seqName);
+            block = new Block(new AtomicLong(start), start + increment);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package mg.fizanakara.api.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import mg.fizanakara.api.dto.stats.ContributionSnapshot;
+import mg.fizanakara.api.dto.stats.ContributionStatRow;
+import mg.fizanakara.api.dto.stats.MemberStatRow;
+import mg.fizanakara.api.dto.stats.OutstandingContributionDto;
+import mg.fizanakara.api.dto.stats.StatsDto;
+import mg.fizanakara.api.models.enums.ContributionStatus;
+import mg.fizanakara.api.repository.ContributionRepository;
+import mg.fizanakara.api.repository.ContributionStatRepository;
+import mg.fizanakara.api.repository.MemberStatRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsService {
+    private final ContributionStatRepository contributionStatRepository;
+    private final MemberStatRepository memberStatRepository;
+    private final ContributionRepository contributionRepository;
+
+    private static final int MAX_AT_RISK = 50;
+
+    // GET (lecture des agrégats, regroupés par année / district / tribu)
+    @Transactional(readOnly = true)
+    public List<StatsDto> getStats(Integer year) {
+        Map<List<Object>, StatsDto> byGroup = new LinkedHashMap<>();
+        for (ContributionStatRow row : contributionStatRepository.findRows(year)) {
+            StatsDto dto = byGroup.computeIfAbsent(List.of(row.getYear(), row.getDistrictId(), row.getTributeId()),
+                    k -> new StatsDto(row.getYear(), row.getDistrictId(), row.getDistrictName(), row.getTributeId(),
+                            row.getTributeName(), 0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                            new EnumMap<>(ContributionStatus.class)));
+            dto.setContributionCount(dto.getContributionCount() + row.getContributionCount());
+            dto.setBilled(dto.getBilled().add(row.getBilledTotal()));
+            dto.setCollected(dto.getCollected().add(row.getCollectedTotal()));
+            dto.setOutstanding(dto.getBilled().subtract(dto.getCollected()));
+            dto.getStatusHistogram().merge(row.getStatus(), row.getContributionCount(), Long::sum);
+        }
+
+        // Effectifs : cumul des variations annuelles de member_stats jusqu'à l'année de chaque ligne ;
+        // pour une année donnée, les groupes sans aucune cotisation apparaissent aussi (sinon leurs inscrits manqueraient au total)
+        Map<List<Object>, MemberHistory> histories = new LinkedHashMap<>();
+        for (MemberStatRow row : memberStatRepository.findRowsUpTo(year != null ? year : Integer.MAX_VALUE)) {
+            histories.computeIfAbsent(List.of(row.getDistrictId(), row.getTributeId()),
+                            k -> new MemberHistory(row.getDistrictName(), row.getTributeName()))
+                    .add(row.getYear(), row.getMemberDelta(), row.getActiveDelta());
+        }
+        for (StatsDto dto : byGroup.values()) {
+            MemberHistory history = histories.get(List.of(dto.getDistrictId(), dto.getTributeId()));
+            if (history == null) continue;
+            long[] counts = history.at(dto.getYear());
+            dto.setMemberCount(counts[0]);
+            dto.setActiveMemberCount(counts[1]);
+        }
+        if (year != null) {
+            histories.forEach((group, history) -> {
+                long[] counts = history.at(year);
+                if (counts[0] == 0) return;
+                byGroup.computeIfAbsent(List.of(year, group.get(0), group.get(1)),
+                        k -> new StatsDto(year, (Long) group.get(0), history.districtName, (Long) group.get(1),
+                                history.tributeName, counts[0], counts[1], 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                                BigDecimal.ZERO, new EnumMap<>(ContributionStatus.class)));
+            });
+        }
+        return new ArrayList<>(byGroup.values());
+    }
+
+    // TOP IMPAYÉS (reste à payer décroissant) : quelques lignes lues par index, plus de téléchargement de l'année
+    @Transactional(readOnly = true)
+    public List<OutstandingContributionDto> getTopOutstanding(int year, int limit) {
+        return contributionRepository.findTopOutstandingRows(Year.of(year), Limit.of(Math.max(1, Math.min(limit, MAX_AT_RISK))))
+                .stream()
+                .map(row -> new OutstandingContributionDto(row.getId(), row.getMemberId(),
+                        row.getMemberFirstName() + " " + row.getMemberLastName(), row.getStatus(), row.getAmount(),
+                        row.getPaidTotal(), row.getAmount().subtract(row.getPaidTotal())))
+                .toList();
+    }
+
+    // DELTA UNITAIRE : before = null pour une création, after = null pour une suppression
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ContributionSnapshot before, ContributionSnapshot after) {
+        applySnapshots(before != null ? List.of(before) : List.of(), after != null ? List.of(after) : List.of());
+    }
+
+    // DELTA ENSEMBLISTE : cumul en mémoire puis 1 upsert par (année, district, tribu, statut) touché
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applySnapshots(Collection<ContributionSnapshot> removed, Collection<ContributionSnapshot> added) {
+        Map<List<Object>, Delta> deltas = new LinkedHashMap<>();
+        removed.forEach(s -> accumulate(deltas, s, -1));
+        added.forEach(s -> accumulate(deltas, s, 1));
+
+        deltas.forEach((key, delta) -> {
+            if (delta.isZero()) return;
+            contributionStatRepository.applyDelta((Integer) key.get(0), (Long) key.get(1), (Long) key.get(2),
+                    ((ContributionStatus) key.get(3)).name(), delta.count, delta.billed, delta.collected);
+        });
+    }
+
+    // CHANGEMENT DE DISTRICT / TRIBU : déplace la part des membres vers leur nouveau groupe
+    // (à appeler AVANT l'écriture sur persons ; null = inchangé)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reassignMembers(Collection<String> memberIds, Long districtId, Long tributeId) {
+        if (memberIds.isEmpty() || (districtId == null && tributeId == null)) return;
+        for (Object[] row : contributionStatRepository.aggregateByMembers(memberIds)) {
+            int year = ((Number) row[0]).intValue();
+            Long oldDistrictId = ((Number) row[1]).longValue();
+            Long oldTributeId = ((Number) row[2]).longValue();
+            String status = (String) row[3];
+            long count = ((Number) row[4]).longValue();
+            BigDecimal billed = (BigDecimal) row[5];
+            BigDecimal collected = (BigDecimal) row[6];
+
+            Long newDistrictId = districtId != null ? districtId : oldDistrictId;
+            Long newTributeId = tributeId != null ? tributeId : oldTributeId;
+            if (newDistrictId.equals(oldDistrictId) && newTributeId.equals(oldTributeId)) continue;
+
+            contributionStatRepository.applyDelta(year, oldDistrictId, oldTributeId, status, -count, billed.negate(), collected.negate());
+            contributionStatRepository.applyDelta(year, newDistrictId, newTributeId, status, count, billed, collected);
+        }
+    }
+
+    // RECONSTRUCTION (nocturne + à la demande) : verrouille la table pour ne perdre aucun delta concurrent
+    @Transactional
+    @Scheduled(cron = "${app.stats.rebuild-cron:0 30 2 * * *}")
+    public int rebuild() {
+        return rebuildAll();
+    }
+
+    // PREMIER DÉMARRAGE : table vide → amorçage depuis les données existantes
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void initialize() {
+        if (contributionStatRepository.count() == 0) rebuildAll();
+        if (memberStatRepository.count() == 0) {
+            int rows = memberStatRepository.insertFromSource();
+            log.info("Seeded member stats ({} rows)", rows);
+        }
+    }
+
+    private int rebuildAll() {
+        long start = System.currentTimeMillis();
+        contributionStatRepository.lockForRebuild();
+        contributionStatRepository.deleteAllRows();
+        int rows = contributionStatRepository.insertFromSource();
+        // Effectifs : pas de réécriture de l'historique, seul l'écart avec persons est reporté sur l'année courante
+        memberStatRepository.lockForRebuild();
+        int drifted = memberStatRepository.insertDrift(Year.now().getValue());
+        log.info("Rebuilt contribution stats ({} rows, {} member groups corrected) in {} ms", rows, drifted,
+                System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private void accumulate(Map<List<Object>, Delta> deltas, ContributionSnapshot s, int sign) {
+        BigDecimal paid = Objects.requireNonNullElse(s.getPaid(), BigDecimal.ZERO);
+        deltas.computeIfAbsent(List.of(s.getYear(), s.getDistrictId(), s.getTributeId(), s.getStatus()), k -> new Delta())
+                .add(sign, s.getAmount(), paid);
+    }
+
+    // Effectifs cumulés d'un groupe, par année (variations lues dans l'ordre chronologique)
+    private static final class MemberHistory {
+        private final String districtName;
+        private final String tributeName;
+        private final TreeMap<Integer, long[]> cumulative = new TreeMap<>();
+
+        private MemberHistory(String districtName, String tributeName) {
+            this.districtName = districtName;
+            this.tributeName = tributeName;
+        }
+
+        private void add(int year, long memberDelta, long activeDelta) {
+            long[] previous = at(year);
+            cumulative.put(year, new long[]{previous[0] + memberDelta, previous[1] + activeDelta});
+        }
+
+        private long[] at(int year) {
+            Map.Entry<Integer, long[]> entry = cumulative.floorEntry(year);
+            return entry != null ? entry.getValue() : new long[]{0, 0};
+        }
+    }
+
+    private static final class Delta {
+        private long count;
+        private BigDecimal billed = BigDecimal.ZERO;
+        private BigDecimal collected = BigDecimal.ZERO;
+
+        private void add(int sign, BigDecimal amount, BigDecimal paid) {
+            count += sign;
+            billed = sign > 0 ? billed.add(amount) : billed.subtract(amount);
+            collected = sign > 0 ? collected.add(paid) : collected.subtract(paid);
+        }
+
+        private boolean isZero() {
+            return count == 0 && billed.signum() == 0 && collected.signum() == 0;
+        }
+    }
+}
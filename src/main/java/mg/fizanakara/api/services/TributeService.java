@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import mg.fizanakara.api.dto.tributes.TributeDto;
 import mg.fizanakara.api.models.Tribute;
 import mg.fizanakara.api.repository.TributeRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.rest.webmvc.ResourceNotFoundException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -18,10 +19,11 @@ import java.util.Map;
 @Slf4j
 public class TributeService {
     private final TributeRepository tributeRepository;
+    private final ReferenceDataService referenceDataService;
 
-    // GET ALL
+    // GET ALL (cache de référence, voir ReferenceDataService)
     public List<Tribute> getAllTributes(){
-        return tributeRepository.findAll();
+        return referenceDataService.tributes().getAll();
     }
 
     // GET BY ID
@@ -31,6 +33,7 @@ public class TributeService {
 
     // CREATE
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.TRIBUTES, allEntries = true)
     public Tribute createTribute(TributeDto dto){
         if(tributeRepository.existsByName(dto.getName())){
             throw new IllegalArgumentException("Tribute of name " + dto.getName() + "is exist");
@@ -44,6 +47,7 @@ public class TributeService {
 
     // UPDATE
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.TRIBUTES, allEntries = true)
     public Tribute updateTribute(Long id, TributeDto dto){
         Tribute tribute = getTributeByID(id);
         if(!tribute.getName().equals(dto.getName()) && tributeRepository.existsByName(dto.getName())){
@@ -56,12 +60,14 @@ public class TributeService {
 
     // DELETE
     @Transactional
+    @CacheEvict(cacheNames = ReferenceDataService.TRIBUTES, allEntries = true)
     public void deleteTribute(Long id){
         Tribute tribute = getTributeByID(id);
         tributeRepository.delete(tribute);
     }
 
     // DELETE ALL
+    @CacheEvict(cacheNames = ReferenceDataService.TRIBUTES, allEntries = true)
     public ResponseEntity<Map<String, Object>> deleteAllTributes() {
         tributeRepository.deleteAll();
         return ResponseEntity.ok(Map.of("message", "All districts deleted", "success", true));
@@ -0,0 +1,77 @@
+package mg.fizanakara.api.services.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV RFC 4180 en flux : champs entre guillemets ("" échappé, retours ligne autorisés), séparateur ',' ou ';'
+public class CsvRowReader implements RowReader {
+    private final BufferedReader reader;
+    private char delimiter;
+    private boolean delimiterDetected;
+
+    public CsvRowReader(Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        if (!delimiterDetected) detectDelimiter();
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        int c = reader.read();
+        if (c == -1) return null;
+        if (c == '\uFEFF') c = reader.read();  // BOM UTF-8 (export Excel)
+
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    cell.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                break;
+            } else {
+                cell.append(ch);
+            }
+            c = reader.read();
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    // Séparateur déduit de la 1re ligne (Excel en locale française exporte avec ';')
+    private void detectDelimiter() throws IOException {
+        reader.mark(8192);
+        String header = reader.readLine();
+        reader.reset();
+        delimiter = header != null && header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        delimiterDetected = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,12 @@
+package mg.fizanakara.api.services.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+// Lecture ligne à ligne d'un fichier tabulaire (jamais chargé entièrement en mémoire)
+public interface RowReader extends Closeable {
+
+    // Cellules de la ligne suivante (chaînes brutes), ou null en fin de fichier
+    List<String> nextRow() throws IOException;
+}
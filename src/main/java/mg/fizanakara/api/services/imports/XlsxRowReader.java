@@ -0,0 +1,193 @@
+package mg.fizanakara.api.services.imports;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// XLSX en flux (StAX sur la 1re feuille) : seules les chaînes partagées sont gardées en mémoire
+public class XlsxRowReader implements RowReader {
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String WORKBOOK = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final Pattern SHEET_NUMBER = Pattern.compile("xl/worksheets/sheet(\\d+)\\.xml");
+
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xml;
+
+    public XlsxRowReader(Path file) throws IOException {
+        this.zip = new ZipFile(file.toFile());
+        try {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            this.sharedStrings = readSharedStrings(factory);
+            this.sheetStream = zip.getInputStream(firstSheet(factory));
+            this.xml = factory.createXMLStreamReader(sheetStream);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw new IOException("Invalid XLSX file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> nextRow() throws IOException {
+        try {
+            List<String> cells = null;
+            int column = -1;
+            String type = null;
+            StringBuilder value = new StringBuilder();
+            boolean inValue = false;
+
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "row" -> cells = new ArrayList<>();
+                        case "c" -> {
+                            column = columnIndex(xml.getAttributeValue(null, "r"), cells == null ? 0 : cells.size());
+                            type = xml.getAttributeValue(null, "t");
+                            value.setLength(0);
+                        }
+                        case "v", "t" -> inValue = true;
+                        default -> { }
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inValue) {
+                    value.append(xml.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    switch (xml.getLocalName()) {
+                        case "v", "t" -> inValue = false;
+                        case "c" -> {
+                            if (cells != null) {
+                                while (cells.size() < column) cells.add("");  // cellules vides omises par Excel
+                                cells.add(cellValue(type, value.toString()));
+                            }
+                        }
+                        case "row" -> {
+                            return cells;
+                        }
+                        default -> { }
+                    }
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid XLSX sheet: " + e.getMessage(), e);
+        }
+    }
+
+    private String cellValue(String type, String raw) {
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(raw.trim());
+            return index < sharedStrings.size() ? sharedStrings.get(index) : "";
+        }
+        if ("b".equals(type)) return "1".equals(raw) ? "TRUE" : "FALSE";
+        return raw;  // n, str, inlineStr : valeur telle quelle (dates = numéro de série Excel)
+    }
+
+    // "C12" → 2 ; sans référence, la cellule suit la précédente
+    private static int columnIndex(String reference, int fallback) {
+        if (reference == null) return fallback;
+        int index = 0;
+        for (int i = 0; i < reference.length() && Character.isLetter(reference.charAt(i)); i++) {
+            index = index * 26 + (Character.toUpperCase(reference.charAt(i)) - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    // 1re feuille dans l'ordre des onglets : <sheet r:id> de workbook.xml résolu via workbook.xml.rels
+    // (le nom des entrées ne reflète pas cet ordre : sheet10.xml < sheet2.xml, onglets déplacés...)
+    private ZipEntry firstSheet(XMLInputFactory factory) throws IOException, XMLStreamException {
+        String relationId = firstAttribute(factory, WORKBOOK, "sheet", RELATIONSHIPS_NS, "id", null);
+        if (relationId != null) {
+            String target = firstAttribute(factory, WORKBOOK_RELS, "Relationship", null, "Target", relationId);
+            if (target != null) {
+                ZipEntry sheet = zip.getEntry(target.startsWith("/") ? target.substring(1) : "xl/" + target);
+                if (sheet != null) return sheet;
+            }
+        }
+        // Classeur sans workbook.xml exploitable : plus petit numéro de feuille
+        return zip.stream()
+                .filter(e -> SHEET_NUMBER.matcher(e.getName()).matches())
+                .min(Comparator.comparingInt(XlsxRowReader::sheetNumber))
+                .orElseThrow(() -> new IllegalArgumentException("No worksheet found"));
+    }
+
+    // Valeur d'un attribut du 1er élément <localName> (filtré sur Id = id si fourni)
+    private String firstAttribute(XMLInputFactory factory, String entryName, String localName, String namespace,
+                                  String attribute, String id) throws IOException, XMLStreamException {
+        ZipEntry entry = zip.getEntry(entryName);
+        if (entry == null) return null;
+
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && localName.equals(reader.getLocalName())
+                            && (id == null || id.equals(reader.getAttributeValue(null, "Id")))) {
+                        return reader.getAttributeValue(namespace, attribute);
+                    }
+                }
+                return null;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private static int sheetNumber(ZipEntry entry) {
+        Matcher matcher = SHEET_NUMBER.matcher(entry.getName());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    private List<String> readSharedStrings(XMLInputFactory factory) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry(SHARED_STRINGS);
+        if (entry == null) return strings;
+
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            StringBuilder current = new StringBuilder();
+            boolean inText = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(reader.getLocalName())) current.setLength(0);
+                    else if ("t".equals(reader.getLocalName())) inText = true;
+                } else if (event == XMLStreamConstants.CHARACTERS && inText) {
+                    current.append(reader.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("t".equals(reader.getLocalName())) inText = false;
+                    else if ("si".equals(reader.getLocalName())) strings.add(current.toString());
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException ignored) {
+            // Fermeture du flux sous-jacent ci-dessous
+        } finally {
+            sheetStream.close();
+            zip.close();
+        }
+    }
+}
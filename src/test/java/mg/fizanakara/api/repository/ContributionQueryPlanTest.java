@@ -0,0 +1,63 @@
+package mg.fizanakara.api.repository;
+
+import mg.fizanakara.api.support.CapturingStatementInspector;
+import mg.fizanakara.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Chemin de génération annuelle : les prédicats doivent rester sargables (plan indexé, jamais de Seq Scan).
+// Le SQL expliqué est celui que Hibernate émet réellement pour la méthode de repository (CapturingStatementInspector),
+// sous forme de plan générique : un prédicat non sargable (fonction sur la colonne, ":x IS NULL OR ...") y retombe
+// en Seq Scan même avec enable_seqscan = off, tandis qu'un prédicat indexable passe par l'index même sur une table vide.
+class ContributionQueryPlanTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    // PersonRepository.findEligiblePersonRowsForContribution (ELIGIBLE_BIRTH_RANGES)
+    @Test
+    void eligibilityQueryUsesBirthDateIndex() {
+        String plan = explain(() -> personRepository.findEligiblePersonRowsForContribution(2026));
+
+        assertThat(plan).doesNotContain("Seq Scan").contains("idx_persons_birth_date");
+    }
+
+    // ContributionRepository.findBilledMemberIdsByYear : index couvrant (year, member_id)
+    @Test
+    void billedMembersQueryIsIndexOnly() {
+        String plan = explain(() -> contributionRepository.findBilledMemberIdsByYear(Year.of(2026)));
+
+        assertThat(plan).doesNotContain("Seq Scan").contains("Index Only Scan").contains("idx_contributions_year_member");
+    }
+
+    // ContributionRepository.hasDuplicateByMemberAndYear (adulte, puis enfant via hasDuplicateByMemberYearAndChild)
+    @Test
+    void duplicateChecksUseMemberYearIndex() {
+        String adult = explain(() -> contributionRepository.hasDuplicateByMemberAndYear("MBR00000001", Year.of(2026), null));
+        String child = explain(() -> contributionRepository.hasDuplicateByMemberAndYear("MBR00000001", Year.of(2026), "MBR00000002"));
+
+        assertThat(adult).doesNotContain("Seq Scan").containsPattern("idx_contributions_(member_year|year_member)");
+        assertThat(child).doesNotContain("Seq Scan").containsPattern("idx_contributions_(member_year|year_member)");
+    }
+
+    private String explain(Runnable repositoryCall) {
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            String sql = CapturingStatementInspector.lastStatement(repositoryCall);
+            List<String> lines = jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + sql, String.class);
+            return String.join("\n", lines);
+        });
+    }
+}
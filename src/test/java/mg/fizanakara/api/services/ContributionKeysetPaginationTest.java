@@ -0,0 +1,81 @@
+package mg.fizanakara.api.services;
+
+import mg.fizanakara.api.dto.contributions.ContributionPageDto;
+import mg.fizanakara.api.dto.contributions.ContributionResponseDto;
+import mg.fizanakara.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Pagination keyset (year, id) : pages complètes, sans doublon ni trou, y compris au changement d'année
+class ContributionKeysetPaginationTest extends PostgresIntegrationTest {
+    private static final Year FIRST_YEAR = Year.of(2031);
+    private static final Year SECOND_YEAR = Year.of(2032);
+
+    @Autowired
+    private ContributionService contributionService;
+
+    private Long districtId;
+
+    @BeforeEach
+    void setUp() {
+        districtId = newDistrict();
+        Long tributeId = newTribute();
+        for (int i = 0; i < 4; i++) {
+            newPerson(districtId, tributeId, LocalDate.of(1980, 1, 1 + i), null);
+        }
+        contributionService.generateContributionsForYear(FIRST_YEAR);
+        contributionService.generateContributionsForYear(SECOND_YEAR);
+    }
+
+    @Test
+    void cursorWalksEveryRowOnceInYearIdOrder() {
+        List<ContributionResponseDto> walked = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        ContributionPageDto page;
+        do {
+            page = contributionService.getContributionsPage(cursor, 5, null, null, districtId, null);
+            walked.addAll(page.getItems());
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+            assertThat(page.isHasMore()).isEqualTo(cursor != null);
+        } while (cursor != null);
+
+        // 4 membres majeurs × 3 années (année courante à la création + 2 générations) = 12 cotisations → pages de 5, 5, 2
+        assertThat(pageSizes).containsExactly(5, 5, 2);
+        assertThat(walked).extracting(ContributionResponseDto::getId).doesNotHaveDuplicates();
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(ContributionResponseDto::getYear)
+                .thenComparing(ContributionResponseDto::getId));
+        assertThat(walked).extracting(ContributionResponseDto::getYear).containsOnly(Year.now(), FIRST_YEAR, SECOND_YEAR);
+    }
+
+    @Test
+    void filtersApplyOnEveryPage() {
+        ContributionPageDto first = contributionService.getContributionsPage(null, 2, null, SECOND_YEAR, districtId, null);
+        ContributionPageDto second = contributionService.getContributionsPage(first.getNextCursor(), 2, null, SECOND_YEAR, districtId, null);
+
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(first.getItems()).extracting(ContributionResponseDto::getYear).containsOnly(SECOND_YEAR);
+        assertThat(second.getItems()).extracting(ContributionResponseDto::getYear).containsOnly(SECOND_YEAR);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> contributionService.getContributionsPage("@@not-a-cursor@@", 3, null, null, districtId, null))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
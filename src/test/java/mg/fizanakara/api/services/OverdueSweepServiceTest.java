@@ -0,0 +1,81 @@
+package mg.fizanakara.api.services;
+
+import mg.fizanakara.api.dto.payments.PaymentBatchLineDto;
+import mg.fizanakara.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Balayage OVERDUE : seules les cotisations échues sans aucun versement basculent ; une seule instance à la fois
+class OverdueSweepServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private OverdueSweepService overdueSweepService;
+
+    @Autowired
+    private PaymentBatchService paymentBatchService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private String unpaidId;
+    private String partialId;
+    private String notDueId;
+
+    @BeforeEach
+    void setUp() {
+        Long districtId = newDistrict();
+        Long tributeId = newTribute();
+        unpaidId = contributionOf(newPerson(districtId, tributeId, LocalDate.of(1980, 1, 1), null));
+        partialId = contributionOf(newPerson(districtId, tributeId, LocalDate.of(1981, 1, 1), null));
+        notDueId = contributionOf(newPerson(districtId, tributeId, LocalDate.of(1982, 1, 1), null));
+
+        PaymentBatchLineDto partial = new PaymentBatchLineDto();
+        partial.setContributionId(partialId);
+        partial.setAmountPaid(new BigDecimal("1000"));
+        paymentBatchService.ingest(List.of(partial));
+
+        // Échéance dépassée pour deux des trois cotisations
+        jdbcTemplate.update("UPDATE contributions SET due_date = DATE '2020-01-01' WHERE id IN (?, ?)", unpaidId, partialId);
+    }
+
+    @Test
+    void marksOnlyUnpaidPastDueContributions() {
+        int marked = overdueSweepService.sweep();
+
+        assertThat(marked).isGreaterThanOrEqualTo(1);
+        assertThat(statusOf(unpaidId)).isEqualTo("OVERDUE");
+        assertThat(statusOf(partialId)).isEqualTo("PARTIAL");
+        assertThat(statusOf(notDueId)).isEqualTo("PENDING");
+    }
+
+    @Test
+    void skipsWhileAnotherInstanceHoldsTheLock() throws Exception {
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(hashtext('contributions-overdue-sweep'))");
+            try {
+                assertThat(overdueSweepService.sweep()).isEqualTo(-1);
+                assertThat(statusOf(unpaidId)).isEqualTo("PENDING");
+            } finally {
+                statement.execute("SELECT pg_advisory_unlock(hashtext('contributions-overdue-sweep'))");
+            }
+        }
+    }
+
+    private String contributionOf(String personId) {
+        return jdbcTemplate.queryForObject("SELECT id FROM contributions WHERE member_id = ?", String.class, personId);
+    }
+
+    private String statusOf(String contributionId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM contributions WHERE id = ?", String.class, contributionId);
+    }
+}
@@ -0,0 +1,92 @@
+package mg.fizanakara.api.services;
+
+import mg.fizanakara.api.dto.payments.PaymentBatchLineDto;
+import mg.fizanakara.api.dto.payments.PaymentBatchLineResultDto;
+import mg.fizanakara.api.dto.payments.PaymentBatchLineResultDto.Outcome;
+import mg.fizanakara.api.dto.payments.PaymentBatchResultDto;
+import mg.fizanakara.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Session d'encaissement : rejet ligne par ligne, cumul en mémoire contre le trop-perçu, rejeu par clé d'idempotence
+class PaymentBatchServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PaymentBatchService paymentBatchService;
+
+    private String contributionId;
+
+    @BeforeEach
+    void setUp() {
+        // Membre majeur WORKER : cotisation de l'année courante (40 000) créée avec la personne
+        String personId = newPerson(newDistrict(), newTribute(), LocalDate.of(1980, 6, 1), null);
+        contributionId = jdbcTemplate.queryForObject(
+                "SELECT id FROM contributions WHERE member_id = ?", String.class, personId);
+    }
+
+    @Test
+    void invalidLinesAreRejectedIndividually() {
+        String key = newKey();
+        PaymentBatchResultDto result = paymentBatchService.ingest(List.of(
+                line(contributionId, "10000", key),
+                line(contributionId, "35000", null),       // 10 000 + 35 000 > 40 000
+                line("COT1999-404", "1000", null),
+                line(contributionId, "-5", null),
+                line(contributionId, "1000", key),         // clé déjà utilisée plus haut dans la session
+                line(contributionId, "30000", newKey())));
+
+        assertThat(result.getRequested()).isEqualTo(6);
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getLines()).extracting(PaymentBatchLineResultDto::getOutcome).containsExactly(
+                Outcome.ACCEPTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.REJECTED, Outcome.ACCEPTED);
+        assertThat(result.getLines()).extracting(PaymentBatchLineResultDto::getReason).containsExactly(
+                null, "OVERPAYMENT", "CONTRIBUTION_NOT_FOUND", "INVALID_LINE", "DUPLICATE_IDEMPOTENCY_KEY", null);
+
+        Map<String, Object> balance = jdbcTemplate.queryForMap(
+                "SELECT paid_total, payment_count, status FROM contributions WHERE id = ?", contributionId);
+        assertThat((BigDecimal) balance.get("paid_total")).isEqualByComparingTo("40000");
+        assertThat(balance.get("payment_count")).isEqualTo(2);
+        assertThat(balance.get("status")).isEqualTo("PAID");
+    }
+
+    @Test
+    void resentSessionIsReplayedNotDoubleCounted() {
+        String key = newKey();
+        PaymentBatchResultDto first = paymentBatchService.ingest(List.of(line(contributionId, "15000", key)));
+        PaymentBatchResultDto replay = paymentBatchService.ingest(List.of(line(contributionId, "15000", key)));
+        PaymentBatchResultDto mismatch = paymentBatchService.ingest(List.of(line(contributionId, "20000", key)));
+
+        assertThat(replay.getLines().get(0).getOutcome()).isEqualTo(Outcome.REPLAYED);
+        assertThat(replay.getLines().get(0).getPaymentId()).isEqualTo(first.getLines().get(0).getPaymentId());
+        assertThat(mismatch.getLines().get(0).getReason()).isEqualTo("IDEMPOTENCY_KEY_MISMATCH");
+
+        BigDecimal paidTotal = jdbcTemplate.queryForObject(
+                "SELECT paid_total FROM contributions WHERE id = ?", BigDecimal.class, contributionId);
+        Integer payments = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE contribution_id = ?", Integer.class, contributionId);
+        assertThat(paidTotal).isEqualByComparingTo("15000");
+        assertThat(payments).isEqualTo(1);
+    }
+
+    private static PaymentBatchLineDto line(String contributionId, String amount, String idempotencyKey) {
+        PaymentBatchLineDto line = new PaymentBatchLineDto();
+        line.setContributionId(contributionId);
+        line.setAmountPaid(new BigDecimal(amount));
+        line.setIdempotencyKey(idempotencyKey);
+        return line;
+    }
+
+    private static String newKey() {
+        return "test-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,78 @@
+package mg.fizanakara.api.services;
+
+import mg.fizanakara.api.configs.PersonAncestryInitializer;
+import mg.fizanakara.api.dto.person.FamilyTreeNodeDto;
+import mg.fizanakara.api.repository.PersonAncestryRepository;
+import mg.fizanakara.api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Table de fermeture person_ancestry : chemins posés à la création, purgés à la suppression, reconstruits au démarrage
+class PersonAncestryMaintenanceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PersonAncestryRepository personAncestryRepository;
+
+    @Autowired
+    private PersonAncestryInitializer personAncestryInitializer;
+
+    @Autowired
+    private FamilyTreeService familyTreeService;
+
+    private String grandParentId;
+    private String parentId;
+    private String childId;
+
+    @BeforeEach
+    void setUp() {
+        Long districtId = newDistrict();
+        Long tributeId = newTribute();
+        grandParentId = newPerson(districtId, tributeId, LocalDate.of(1950, 3, 1), null);
+        parentId = newPerson(districtId, tributeId, LocalDate.of(1975, 3, 1), grandParentId);
+        childId = newPerson(districtId, tributeId, LocalDate.of(2015, 3, 1), parentId);  // Mineur : aucune cotisation
+    }
+
+    @Test
+    void createPersonInsertsEveryAncestorPath() {
+        assertThat(pathsTo(childId)).extracting(r -> r.get("ancestor_id"), r -> r.get("depth")).containsExactlyInAnyOrder(
+                tuple(childId, 0), tuple(parentId, 1), tuple(grandParentId, 2));
+        assertThat(personAncestryRepository.countDescendants(grandParentId)).isEqualTo(2);
+
+        FamilyTreeNodeDto tree = familyTreeService.getFamilyTree(grandParentId, FamilyTreeService.DEFAULT_DEPTH, false, null);
+        assertThat(tree.getDescendantCount()).isEqualTo(2);
+        assertThat(tree.getChildren()).singleElement()
+                .satisfies(parent -> assertThat(parent.getChildren()).extracting(FamilyTreeNodeDto::getId).containsExactly(childId));
+    }
+
+    @Test
+    void deletingAPersonRemovesItsPaths() {
+        personService.deletePerson(childId);
+
+        assertThat(pathsTo(childId)).isEmpty();
+        assertThat(personAncestryRepository.countDescendants(grandParentId)).isEqualTo(1);
+    }
+
+    @Test
+    void startupRebuildRestoresTheSamePaths() {
+        List<Map<String, Object>> before = pathsTo(childId);
+        jdbcTemplate.update("DELETE FROM person_ancestry WHERE descendant_id = ?", childId);
+
+        personAncestryInitializer.ensureAncestry();
+
+        assertThat(personAncestryRepository.countPersonsWithoutPath()).isZero();
+        assertThat(pathsTo(childId)).containsExactlyInAnyOrderElementsOf(before);
+    }
+
+    private List<Map<String, Object>> pathsTo(String descendantId) {
+        return jdbcTemplate.queryForList(
+                "SELECT ancestor_id, depth FROM person_ancestry WHERE descendant_id = ?", descendantId);
+    }
+}
@@ -0,0 +1,64 @@
+package mg.fizanakara.api.services.imports;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxRowReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsFirstTabFromWorkbookOrderNotEntryName() throws IOException {
+        // Onglet 1 = sheet10.xml, onglet 2 = sheet2.xml (ordre lexical inverse)
+        Path file = xlsx(
+                "xl/workbook.xml", "<workbook xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\">" +
+                        "<sheets><sheet name=\"Membres\" sheetId=\"10\" r:id=\"rId10\"/><sheet name=\"Brouillon\" sheetId=\"2\" r:id=\"rId2\"/></sheets></workbook>",
+                "xl/_rels/workbook.xml.rels", "<Relationships>" +
+                        "<Relationship Id=\"rId2\" Target=\"worksheets/sheet2.xml\"/>" +
+                        "<Relationship Id=\"rId10\" Target=\"worksheets/sheet10.xml\"/></Relationships>",
+                "xl/worksheets/sheet2.xml", sheet("brouillon"),
+                "xl/worksheets/sheet10.xml", sheet("membres"));
+
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            assertThat(reader.nextRow()).containsExactly("membres");
+        }
+    }
+
+    @Test
+    void fallsBackToLowestSheetNumberWithoutWorkbook() throws IOException {
+        Path file = xlsx(
+                "xl/worksheets/sheet10.xml", sheet("dix"),
+                "xl/worksheets/sheet2.xml", sheet("deux"));
+
+        try (XlsxRowReader reader = new XlsxRowReader(file)) {
+            assertThat(reader.nextRow()).containsExactly("deux");
+        }
+    }
+
+    private static String sheet(String value) {
+        return "<worksheet><sheetData><row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>" + value +
+                "</t></is></c></row></sheetData></worksheet>";
+    }
+
+    private Path xlsx(String... entries) throws IOException {
+        Path file = Files.createTempFile(dir, "import-", ".xlsx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return file;
+    }
+}
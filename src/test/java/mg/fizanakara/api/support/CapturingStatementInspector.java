@@ -0,0 +1,36 @@
+package mg.fizanakara.api.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Enregistré via hibernate.session_factory.statement_inspector (PostgresIntegrationTest) : garde le SQL réellement
+// généré par Hibernate sur le thread courant, pour l'EXPLAIN des requêtes de repository
+public class CapturingStatementInspector implements StatementInspector {
+    private static final ThreadLocal<List<String>> CAPTURED = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        CAPTURED.get().add(sql);
+        return sql;
+    }
+
+    // Dernière requête émise par l'appel, paramètres JDBC "?" renumérotés en $1..$n (EXPLAIN (GENERIC_PLAN))
+    public static String lastStatement(Runnable call) {
+        List<String> captured = CAPTURED.get();
+        captured.clear();
+        call.run();
+        if (captured.isEmpty()) throw new IllegalStateException("No SQL statement captured");
+
+        String sql = captured.get(captured.size() - 1);
+        StringBuilder positional = new StringBuilder(sql.length() + 16);
+        int index = 0;
+        for (char ch : sql.toCharArray()) {
+            if (ch == '?') positional.append('$').append(++index);
+            else positional.append(ch);
+        }
+        captured.clear();
+        return positional.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package mg.fizanakara.api.support;
+
+import mg.fizanakara.api.dto.districts.DistrictDto;
+import mg.fizanakara.api.dto.person.PersonDto;
+import mg.fizanakara.api.dto.tributes.TributeDto;
+import mg.fizanakara.api.models.enums.Gender;
+import mg.fizanakara.api.models.enums.MemberStatus;
+import mg.fizanakara.api.services.DistrictService;
+import mg.fizanakara.api.services.PersonService;
+import mg.fizanakara.api.services.TributeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Base des tests d'intégration : vrai PostgreSQL (Testcontainers), schéma Hibernate + initialiseurs au démarrage.
+// Ignorés sans Docker. Chaque test crée ses propres district / tribu (noms uniques) pour filtrer ses données.
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.mail.host=localhost",
+        "jwt.secret=integration-tests-secret-key-with-at-least-256-bits!",
+        "jwt.expiration=3600000",
+        "jwt.refresh-expiration=86400000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=mg.fizanakara.api.support.CapturingStatementInspector"
+})
+@Import(PostgresTestcontainersConfig.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected DistrictService districtService;
+
+    @Autowired
+    protected TributeService tributeService;
+
+    @Autowired
+    protected PersonService personService;
+
+    protected Long newDistrict() {
+        DistrictDto dto = new DistrictDto();
+        dto.setName("District " + UUID.randomUUID());
+        return districtService.createDistrict(dto).getId();
+    }
+
+    protected Long newTribute() {
+        TributeDto dto = new TributeDto();
+        dto.setName("Tribute " + UUID.randomUUID());
+        return tributeService.createTribute(dto).getId();
+    }
+
+    protected String newPerson(Long districtId, Long tributeId, LocalDate birthDate, String parentId) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        PersonDto dto = new PersonDto();
+        dto.setFirstName("Test " + suffix);
+        dto.setLastName("Member " + suffix);
+        dto.setBirthDate(birthDate);
+        dto.setGender(Gender.MALE);
+        dto.setImageUrl("test.jpg");
+        dto.setPhoneNumber("034" + Math.abs(suffix.hashCode() % 10_000_000));
+        dto.setStatus(MemberStatus.WORKER);
+        dto.setDistrictId(districtId);
+        dto.setTributeId(tributeId);
+        dto.setParentId(parentId);
+        return personService.createPerson(dto).getId();
+    }
+}
@@ -0,0 +1,18 @@
+package mg.fizanakara.api.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+// Conteneur lié au contexte Spring (mis en cache entre classes de test) : démarré une fois, arrêté avec le contexte
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresTestcontainersConfig {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+    }
+}